@@ -0,0 +1,68 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.services.CardValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the card checks of order validation: the former regular expression / split / YearMonth.now() version
+ * against the character scanning CardValidator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CardValidationBenchmark {
+
+    private final CardValidator validator = new CardValidator(false);
+    private final CardValidator luhnValidator = new CardValidator(true);
+
+    private String number;
+    private String expiry;
+    private String cvv;
+
+    @Setup
+    public void setUp() {
+        number = "4485959141852684";
+        expiry = YearMonth.now().plusYears(1).format(DateTimeFormatter.ofPattern("MM/yy"));
+        cvv = "816";
+    }
+
+    @Benchmark
+    public boolean regexCheck() {
+        return number.matches("\\d{16}") && isValidExpiryDate(expiry) && cvv.matches("\\d{3}");
+    }
+
+    @Benchmark
+    public boolean cardValidator() {
+        return validator.isValidNumber(number) && validator.isValidExpiry(expiry) && validator.isValidCvv(cvv);
+    }
+
+    @Benchmark
+    public boolean cardValidatorWithLuhn() {
+        return luhnValidator.isValidNumber(number) && luhnValidator.isValidExpiry(expiry) && luhnValidator.isValidCvv(cvv);
+    }
+
+    // the expiry check as the controller did it before CardValidator
+    private static boolean isValidExpiryDate(String expiryDate) {
+        if (!expiryDate.matches("\\d{2}/\\d{2}")) {
+            return false;
+        }
+        try {
+            String[] parts = expiryDate.split("/");
+            int month = Integer.parseInt(parts[0]);
+            int year = Integer.parseInt(parts[1]);
+            if (month < 1 || month > 12) {
+                return false;
+            }
+            YearMonth currentYearMonth = YearMonth.now();
+            YearMonth expiryYearMonth = YearMonth.of(2000 + year, month);
+            YearMonth maxExpiryDate = currentYearMonth.plusYears(5);
+            return !expiryYearMonth.isBefore(currentYearMonth) && !expiryYearMonth.isAfter(maxExpiryDate);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.planning.CostToGoField;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * routes from all recorded restaurants to Appleton Tower read off a cost-to-go field versus searched with A*,
+ * and the one-off cost of building the field
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CostToGoFieldBenchmark {
+
+    private Airspace airspace;
+    private Restaurant[] restaurants;
+    private RoutePlanner planner;
+    private LngLat appleton;
+    private CostToGoField field;
+
+    // the area covered by the restaurants
+    private double minLng;
+    private double minLat;
+    private double maxLng;
+    private double maxLat;
+
+    @Setup
+    public void setUp() {
+        airspace = Fixtures.airspace();
+        restaurants = Fixtures.restaurants();
+        planner = new RoutePlanner(250_000);
+        appleton = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+
+        minLng = Double.POSITIVE_INFINITY;
+        minLat = Double.POSITIVE_INFINITY;
+        maxLng = Double.NEGATIVE_INFINITY;
+        maxLat = Double.NEGATIVE_INFINITY;
+        for (Restaurant restaurant : restaurants) {
+            minLng = Math.min(minLng, restaurant.location().lng());
+            minLat = Math.min(minLat, restaurant.location().lat());
+            maxLng = Math.max(maxLng, restaurant.location().lng());
+            maxLat = Math.max(maxLat, restaurant.location().lat());
+        }
+        field = CostToGoField.build(airspace, appleton, minLng, minLat, maxLng, maxLat);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CostToGoField buildField() {
+        return CostToGoField.build(airspace, appleton, minLng, minLat, maxLng, maxLat);
+    }
+
+    @Benchmark
+    public void allRestaurantsFromField(Blackhole blackhole) {
+        for (Restaurant restaurant : restaurants) {
+            blackhole.consume(field.pathFrom(restaurant.location()));
+        }
+    }
+
+    @Benchmark
+    public void allRestaurantsSearched(Blackhole blackhole) {
+        for (Restaurant restaurant : restaurants) {
+            blackhole.consume(planner.plan(restaurant.location(), appleton, airspace));
+        }
+    }
+}
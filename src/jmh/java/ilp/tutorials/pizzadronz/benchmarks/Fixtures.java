@@ -0,0 +1,112 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp.tutorials.pizzadronz.client.IlpRestClient;
+import ilp.tutorials.pizzadronz.controllers.PizzaDronzController;
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.planning.CostToGoFields;
+import ilp.tutorials.pizzadronz.planning.DeliveryPlanner;
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import ilp.tutorials.pizzadronz.services.CardValidator;
+import ilp.tutorials.pizzadronz.services.OrderBatchValidator;
+import ilp.tutorials.pizzadronz.services.OrderValidator;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import ilp.tutorials.pizzadronz.services.RestReferenceDataSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * the recorded responses of the ILP REST service, shared by the benchmarks
+ */
+final class Fixtures {
+
+    // configured like the Spring MVC message converters
+    static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private Fixtures() {
+    }
+
+    static Restaurant[] restaurants() {
+        return readJson("/json/Restaurants.json", Restaurant[].class);
+    }
+
+    static NamedRegion[] noFlyZones() {
+        return readJson("/json/NoFlyZones.json", NamedRegion[].class);
+    }
+
+    static NamedRegion centralArea() {
+        return readJson("/json/NamedRegion.json", NamedRegion.class);
+    }
+
+    static Order orderFixture() {
+        return readJson("/json/Order.json", Order.class);
+    }
+
+    static Airspace airspace() {
+        return Airspace.of(Arrays.asList(noFlyZones()), centralArea());
+    }
+
+    /**
+     * reference data loaded through the REST client from a local stub
+     * @param server serves the fixtures
+     * @return the service
+     */
+    static ReferenceDataService referenceDataService(StubIlpServer server) {
+        IlpRestClient client = new IlpRestClient(new IlpRestClient.Settings(server.baseUrl(),
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 16, 1, Duration.ofMillis(100), 5, Duration.ofSeconds(30)), OBJECT_MAPPER);
+        return new ReferenceDataService(new RestReferenceDataSource(client), Duration.ofHours(1), Clock.systemUTC());
+    }
+
+    /**
+     * the controller wired as in the application
+     * @param referenceDataService provides the reference data
+     * @param routeCache caches the planned paths
+     * @return the controller
+     */
+    static PizzaDronzController controller(ReferenceDataService referenceDataService, RouteCache routeCache) {
+        return controller(referenceDataService, routeCache, true);
+    }
+
+    /**
+     * the controller wired as in the application, with or without cost-to-go fields
+     * @param referenceDataService provides the reference data
+     * @param routeCache caches the planned paths
+     * @param costToGoField is whether routes may be read off a cost-to-go field instead of searched
+     * @return the controller
+     */
+    static PizzaDronzController controller(ReferenceDataService referenceDataService, RouteCache routeCache,
+                                           boolean costToGoField) {
+        return new PizzaDronzController(referenceDataService, new DeliveryPlanner(new RoutePlanner(250_000), routeCache,
+                new CostToGoFields(referenceDataService, costToGoField)), routeCache,
+                new LngLatHandler(), new OrderBatchValidator(OBJECT_MAPPER, 0, 256),
+                new OrderValidator(new CardValidator(false)));
+    }
+
+    static String readResource(String resource) {
+        try (InputStream in = Fixtures.class.getResourceAsStream(resource)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static <T> T readJson(String resource, Class<T> type) {
+        try (InputStream in = Fixtures.class.getResourceAsStream(resource)) {
+            return OBJECT_MAPPER.readValue(in, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
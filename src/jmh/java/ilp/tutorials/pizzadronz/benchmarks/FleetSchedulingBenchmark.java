@@ -0,0 +1,81 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.controllers.PizzaDronzController;
+import ilp.tutorials.pizzadronz.planning.DeliveryPlanner;
+import ilp.tutorials.pizzadronz.planning.FleetScheduler;
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.CreditCardInformation;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /planFleet for a day of orders spread over the recorded restaurants with one to four pizzas each, end to end
+ * (validation, routes from the cache, packing and assignment) and the scheduling step alone
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FleetSchedulingBenchmark {
+
+    private static final int DRONES = 20;
+
+    @Param({ "10000", "50000" })
+    public int orderCount;
+
+    private StubIlpServer server;
+    private PizzaDronzController controller;
+    private List<Order> orders;
+    private DeliveryPlanner.BatchPlan batch;
+
+    @Setup
+    public void setUp() {
+        server = new StubIlpServer();
+        ReferenceDataService referenceDataService = Fixtures.referenceDataService(server);
+        RouteCache routeCache = new RouteCache(referenceDataService, 1024);
+        controller = Fixtures.controller(referenceDataService, routeCache);
+
+        Restaurant[] restaurants = Fixtures.restaurants();
+        String expiry = YearMonth.now().plusYears(1).format(DateTimeFormatter.ofPattern("MM/yy"));
+        Random random = new Random(42);
+        orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            Pizza pizza = restaurants[random.nextInt(restaurants.length)].menu()[0];
+            Pizza[] pizzas = new Pizza[1 + random.nextInt(SystemConstants.MAX_PIZZAS_PER_ORDER)];
+            Arrays.fill(pizzas, pizza);
+            Order order = new Order();
+            order.setOrderNo(Integer.toHexString(i));
+            order.setPizzasInOrder(pizzas);
+            order.setPriceTotalInPence(pizzas.length * pizza.priceInPence() + SystemConstants.ORDER_CHARGE_IN_PENCE);
+            order.setCreditCardInformation(new CreditCardInformation("4485959141852684", expiry, "816"));
+            orders.add(order);
+        }
+        batch = controller.calcDeliveryPaths(orders).getBody();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Object planFleet() {
+        return controller.planFleet(orders, DRONES).getBody();
+    }
+
+    @Benchmark
+    public FleetScheduler.FleetPlan scheduleOnly() {
+        return FleetScheduler.schedule(orders, batch, DRONES);
+    }
+}
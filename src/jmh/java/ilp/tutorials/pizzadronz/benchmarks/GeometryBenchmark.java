@@ -0,0 +1,145 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import ilp.tutorials.pizzadronz.controllers.PizzaDronzController;
+import ilp.tutorials.pizzadronz.controllers.PositionPairRequest;
+import ilp.tutorials.pizzadronz.controllers.RegionRequest;
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.geometry.PreparedRegion;
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * distance and containment tests on the recorded regions, and the geometry requests from JSON body to answer:
+ * bound to typed records as the controller does, and through the former Map&lt;String, Object&gt; body for comparison
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeometryBenchmark {
+
+    private StubIlpServer server;
+    private PizzaDronzController controller;
+    private final LngLatHandler handler = new LngLatHandler();
+
+    private NamedRegion centralArea;
+    private NamedRegion georgeSquare;
+    private PreparedRegion preparedGeorgeSquare;
+
+    // Appleton Tower lies in the central area and near George Square
+    private final LngLat appleton = new LngLat(-3.186874, 55.944494);
+    private final LngLat civerinos = new LngLat(-3.1912869215011597, 55.945535152517735);
+
+    private static final TypeReference<Map<String, Object>> MAP_BODY = new TypeReference<>() {};
+
+    private final String distanceToBody = "{\"position1\":{\"lng\":-3.1912869215011597,\"lat\":55.945535152517735},"
+            + "\"position2\":{\"lng\":-3.186874,\"lat\":55.944494}}";
+    private String isInRegionBody;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        server = new StubIlpServer();
+        controller = Fixtures.controller(Fixtures.referenceDataService(server), new RouteCache(16));
+        centralArea = Fixtures.centralArea();
+        georgeSquare = Fixtures.noFlyZones()[0];
+        preparedGeorgeSquare = PreparedRegion.of(georgeSquare);
+        isInRegionBody = "{\"position\":{\"lng\":-3.186874,\"lat\":55.944494},\"region\":"
+                + Fixtures.OBJECT_MAPPER.writeValueAsString(georgeSquare) + "}";
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    private double angle = 112.5;
+
+    @Benchmark
+    public LngLat nextPositionTrig() {
+        // as the controller computed it before the compass tables
+        double radians = Math.toRadians(angle);
+        return new LngLat(civerinos.lng() + SystemConstants.DRONE_MOVE_DISTANCE * Math.cos(radians),
+                civerinos.lat() + SystemConstants.DRONE_MOVE_DISTANCE * Math.sin(radians));
+    }
+
+    @Benchmark
+    public LngLat nextPositionTable() {
+        return handler.nextPosition(civerinos, angle);
+    }
+
+    @Benchmark
+    public boolean isCloseToPowSqrt() {
+        // as the controller computed it before the squared comparison
+        return Math.sqrt(Math.pow(civerinos.lng() - appleton.lng(), 2) + Math.pow(civerinos.lat() - appleton.lat(), 2)) < 0.00015;
+    }
+
+    @Benchmark
+    public boolean isCloseToSquared() {
+        return LngLatHandler.isCloseTo(civerinos.lng(), civerinos.lat(), appleton.lng(), appleton.lat());
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        return controller.calculateDistance(civerinos, appleton);
+    }
+
+    @Benchmark
+    public boolean isInCentralAreaRectangle() {
+        return handler.isInCentralArea(appleton, centralArea);
+    }
+
+    @Benchmark
+    public boolean isInRegionPolygon() {
+        return handler.isInRegion(appleton, georgeSquare);
+    }
+
+    @Benchmark
+    public boolean isInPreparedRegion() {
+        return preparedGeorgeSquare.contains(appleton);
+    }
+
+    @Benchmark
+    public Object distanceToTypedBody() throws JsonProcessingException {
+        return controller.distanceTo(Fixtures.OBJECT_MAPPER.readValue(distanceToBody, PositionPairRequest.class)).getBody();
+    }
+
+    @Benchmark
+    public Object distanceToMapBody() throws JsonProcessingException {
+        Map<String, Object> request = Fixtures.OBJECT_MAPPER.readValue(distanceToBody, MAP_BODY);
+        return controller.calculateDistance(parseLngLat(request.get("position1")), parseLngLat(request.get("position2")));
+    }
+
+    @Benchmark
+    public Object isInRegionTypedBody() throws JsonProcessingException {
+        return controller.isInRegion(Fixtures.OBJECT_MAPPER.readValue(isInRegionBody, RegionRequest.class)).getBody();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object isInRegionMapBody() throws JsonProcessingException {
+        Map<String, Object> request = Fixtures.OBJECT_MAPPER.readValue(isInRegionBody, MAP_BODY);
+        LngLat position = parseLngLat(request.get("position"));
+        List<LngLat> vertices = new ArrayList<>();
+        for (Map<String, Double> vertex : (List<Map<String, Double>>) ((Map<String, Object>) request.get("region")).get("vertices")) {
+            vertices.add(new LngLat(vertex.get("lng"), vertex.get("lat")));
+        }
+        return handler.isInRegion(position, new NamedRegion("region", vertices.toArray(new LngLat[0])));
+    }
+
+    // the position parsing of the former Map<String, Object> request bodies
+    private static LngLat parseLngLat(Object obj) {
+        if (obj instanceof Map<?, ?> map && map.get("lng") instanceof Number lng && map.get("lat") instanceof Number lat) {
+            return new LngLat(lng.doubleValue(), lat.doubleValue());
+        }
+        throw new IllegalArgumentException("Invalid coordinate object: " + obj);
+    }
+}
@@ -0,0 +1,65 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the greedy walk the route planner replaced, kept as a baseline for the path planning benchmarks only.
+ * Every step heads straight for the destination, or turns by multiples of 15 degrees until it leaves the no-fly
+ * zones, so its moves are not legal compass moves and it gives up where it would have to back out of a dead end.
+ */
+final class GreedyStepper {
+
+    private GreedyStepper() {
+    }
+
+    /**
+     * walk from a start towards a destination
+     * @param start is where the drone starts
+     * @param destination is where the drone goes
+     * @param airspace holds the no-fly zones and the central area
+     * @return the positions of the walk, ending with the destination
+     */
+    static List<LngLat> path(LngLat start, LngLat destination, Airspace airspace) {
+        List<LngLat> path = new ArrayList<>();
+        boolean enteredCentralArea = false;
+        double lng = start.lng();
+        double lat = start.lat();
+
+        while (Math.hypot(destination.lng() - lng, destination.lat() - lat) >= SystemConstants.DRONE_MOVE_DISTANCE) {
+            if (path.size() > SystemConstants.DRONE_MAX_MOVES) {
+                throw new IllegalArgumentException("No valid path found within the move limit.");
+            }
+            path.add(new LngLat(lng, lat));
+
+            boolean inCentralArea = airspace.isInCentralArea(lng, lat);
+            if (enteredCentralArea && !inCentralArea) {
+                throw new IllegalArgumentException("Illegal path: Exited Central Area after entering.");
+            }
+            enteredCentralArea |= inCentralArea;
+
+            double towards = Math.atan2(destination.lat() - lat, destination.lng() - lng);
+            boolean moved = false;
+            for (int turn = 0; turn < 360 && !moved; turn += 15) {
+                double angle = towards + Math.toRadians(turn);
+                double nextLng = lng + SystemConstants.DRONE_MOVE_DISTANCE * Math.cos(angle);
+                double nextLat = lat + SystemConstants.DRONE_MOVE_DISTANCE * Math.sin(angle);
+                if (!airspace.isInNoFlyZone(nextLng, nextLat)) {
+                    lng = nextLng;
+                    lat = nextLat;
+                    moved = true;
+                }
+            }
+            if (!moved) {
+                throw new IllegalArgumentException("No valid path found avoiding no-fly zones.");
+            }
+        }
+
+        path.add(destination);
+        return path;
+    }
+}
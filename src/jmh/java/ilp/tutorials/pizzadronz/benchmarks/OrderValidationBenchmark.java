@@ -0,0 +1,73 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.controllers.PizzaDronzController;
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
+import uk.ac.ed.inf.ilp.data.CreditCardInformation;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * order validation as done by /validateOrder, for a valid order and for orders failing early and late
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderValidationBenchmark {
+
+    private StubIlpServer server;
+    private PizzaDronzController controller;
+
+    private Order validOrder;
+    private Order badCardOrder;
+    private Order undefinedPizzaOrder;
+
+    @Setup
+    public void setUp() {
+        server = new StubIlpServer();
+        controller = Fixtures.controller(Fixtures.referenceDataService(server), new RouteCache(16));
+
+        // the recorded order has long expired, so move its card expiry into the future
+        String expiry = YearMonth.now().plusYears(1).format(DateTimeFormatter.ofPattern("MM/yy"));
+        validOrder = Fixtures.orderFixture();
+        validOrder.setCreditCardInformation(new CreditCardInformation("4485959141852684", expiry, "816"));
+
+        badCardOrder = Fixtures.orderFixture();
+        badCardOrder.setCreditCardInformation(new CreditCardInformation("4485 9591 4185 2684", expiry, "816"));
+
+        undefinedPizzaOrder = Fixtures.orderFixture();
+        undefinedPizzaOrder.setCreditCardInformation(validOrder.getCreditCardInformation());
+        undefinedPizzaOrder.setPizzasInOrder(new Pizza[]{ new Pizza("R6: Sucuk delight", 1400), new Pizza("R9: Unknown", 900) });
+
+        // the valid order has to pass every rule, including the opening day and price checks
+        OrderValidationCode code = controller.validateOrder(validOrder).getBody().getOrderValidationCode();
+        if (code != OrderValidationCode.NO_ERROR) {
+            throw new IllegalStateException("Fixture order is not valid: " + code);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Object validOrder() {
+        return controller.validateOrder(validOrder).getBody();
+    }
+
+    @Benchmark
+    public Object invalidCardNumber() {
+        return controller.validateOrder(badCardOrder).getBody();
+    }
+
+    @Benchmark
+    public Object undefinedPizza() {
+        return controller.validateOrder(undefinedPizzaOrder).getBody();
+    }
+}
@@ -0,0 +1,124 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.controllers.PizzaDronzController;
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.CreditCardInformation;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * calculatePath for one order per recorded restaurant, planned from scratch and served from the route cache,
+ * and /calcDeliveryPaths for a day's worth of orders. The controller searches every route, cost-to-go fields are
+ * measured by {@link CostToGoFieldBenchmark}. The route planner alone and the greedy walk it replaced are measured
+ * on the same restaurants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathPlanningBenchmark {
+
+    // one order for each of the recorded restaurants
+    private static final int ORDERS = 7;
+    private static final int BATCH_SIZE = 2000;
+
+    private StubIlpServer server;
+    private RouteCache routeCache;
+    private PizzaDronzController controller;
+    private Order[] orders;
+    private List<Order> batch;
+    private RoutePlanner planner;
+    private Airspace airspace;
+    private LngLat[] starts;
+    private LngLat appleton;
+
+    @Setup
+    public void setUp() {
+        server = new StubIlpServer();
+        ReferenceDataService referenceDataService = Fixtures.referenceDataService(server);
+        routeCache = new RouteCache(referenceDataService, 1024);
+        controller = Fixtures.controller(referenceDataService, routeCache, false);
+
+        Restaurant[] restaurants = Fixtures.restaurants();
+        String expiry = YearMonth.now().plusYears(1).format(DateTimeFormatter.ofPattern("MM/yy"));
+        orders = new Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            Pizza pizza = restaurants[i].menu()[0];
+            orders[i] = new Order();
+            orders[i].setPizzasInOrder(new Pizza[]{ pizza });
+            orders[i].setPriceTotalInPence(pizza.priceInPence() + SystemConstants.ORDER_CHARGE_IN_PENCE);
+            orders[i].setCreditCardInformation(new CreditCardInformation("4485959141852684", expiry, "816"));
+        }
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(orders[i % ORDERS]);
+        }
+
+        planner = new RoutePlanner(250_000);
+        airspace = Fixtures.airspace();
+        starts = new LngLat[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            starts[i] = restaurants[i].location();
+        }
+        appleton = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void calculatePathUncached(Blackhole blackhole) {
+        for (Order order : orders) {
+            routeCache.invalidateAll();
+            blackhole.consume(controller.calculatePath(order));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void calculatePathCached(Blackhole blackhole) {
+        for (Order order : orders) {
+            blackhole.consume(controller.calculatePath(order));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void routePlanner(Blackhole blackhole) {
+        for (LngLat start : starts) {
+            blackhole.consume(planner.plan(start, appleton, airspace));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void greedyBaseline(Blackhole blackhole) {
+        for (LngLat start : starts) {
+            blackhole.consume(GreedyStepper.path(start, appleton, airspace));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object calcDeliveryPathsUncached() {
+        routeCache.invalidateAll();
+        return controller.calcDeliveryPaths(batch).getBody();
+    }
+}
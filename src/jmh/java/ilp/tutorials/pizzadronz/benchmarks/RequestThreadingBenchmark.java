@@ -0,0 +1,78 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.PizzaDronzApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import uk.ac.ed.inf.ilp.data.CreditCardInformation;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * load test of the running application: many concurrent clients posting orders over HTTP, with requests handled
+ * on the Tomcat platform thread pool or on virtual threads. Throughput gives the requests per second of all clients,
+ * sample time the latency distribution (p0.50 ... p0.999) of single requests.
+ * Run with e.g. -Djmh.args="RequestThreading -f 1 -wi 2 -i 3" and -t to change the number of clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(512)
+public class RequestThreadingBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    private StubIlpServer server;
+    private ConfigurableApplicationContext application;
+    private HttpClient client;
+    private HttpRequest validateOrder;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new StubIlpServer();
+        application = new SpringApplicationBuilder(PizzaDronzApplication.class)
+                .properties("server.port=0",
+                        "logging.level.root=WARN",
+                        "pizzadronz.rest.base-url=" + server.baseUrl(),
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run();
+        int port = ((ServletWebServerApplicationContext) application).getWebServer().getPort();
+
+        // the recorded order has long expired, so move its card expiry into the future
+        Order order = Fixtures.orderFixture();
+        String expiry = YearMonth.now().plusYears(1).format(DateTimeFormatter.ofPattern("MM/yy"));
+        order.setCreditCardInformation(new CreditCardInformation("4485959141852684", expiry, "816"));
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        validateOrder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/validateOrder"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(Fixtures.OBJECT_MAPPER.writeValueAsString(order)))
+                .build();
+
+        // load the reference data before measuring
+        client.send(validateOrder, HttpResponse.BodyHandlers.discarding());
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+        server.close();
+    }
+
+    @Benchmark
+    public int validateOrder() throws IOException, InterruptedException {
+        return client.send(validateOrder, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,54 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import ilp.tutorials.pizzadronz.planning.RoundTrip;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * round trips for all recorded restaurants with the A* planner: the outbound leg reversed from the delivery leg
+ * versus a second search per order. The second search stands in for planning the outbound leg independently,
+ * which the planner cannot do itself as it never leaves the central area around Appleton Tower.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoundTripBenchmark {
+
+    private Airspace airspace;
+    private Restaurant[] restaurants;
+    private RoutePlanner planner;
+    private LngLat appleton;
+
+    @Setup
+    public void setUp() {
+        airspace = Fixtures.airspace();
+        restaurants = Fixtures.restaurants();
+        planner = new RoutePlanner(250_000);
+        appleton = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+    }
+
+    @Benchmark
+    public void reversedOutboundLeg(Blackhole blackhole) {
+        for (Restaurant restaurant : restaurants) {
+            blackhole.consume(RoundTrip.of(planner.plan(restaurant.location(), appleton, airspace)));
+        }
+    }
+
+    @Benchmark
+    public void bothLegsSearched(Blackhole blackhole) {
+        for (Restaurant restaurant : restaurants) {
+            PackedPath outbound = planner.plan(restaurant.location(), appleton, airspace);
+            PackedPath delivery = planner.plan(restaurant.location(), appleton, airspace);
+            blackhole.consume(outbound);
+            blackhole.consume(RoundTrip.of(delivery));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.PreparedRegion;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cost of checking a candidate move against the no-fly zones: end point only versus the whole segment,
+ * and the effect on planning all recorded restaurants
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SegmentCheckBenchmark {
+
+    private static final int MOVES = 4096;
+
+    private Airspace airspace;
+    private Restaurant[] restaurants;
+    private RoutePlanner planner;
+    private LngLat appleton;
+
+    // random moves in the bounding box of the zones, so most of them need a real polygon test
+    private double[] fromLng;
+    private double[] fromLat;
+    private double[] toLng;
+    private double[] toLat;
+
+    @Setup
+    public void setUp() {
+        airspace = Fixtures.airspace();
+        restaurants = Fixtures.restaurants();
+        planner = new RoutePlanner(250_000);
+        appleton = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+
+        double minLng = Double.POSITIVE_INFINITY, maxLng = Double.NEGATIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        for (PreparedRegion zone : airspace.noFlyZones()) {
+            minLng = Math.min(minLng, zone.minLng());
+            maxLng = Math.max(maxLng, zone.maxLng());
+            minLat = Math.min(minLat, zone.minLat());
+            maxLat = Math.max(maxLat, zone.maxLat());
+        }
+
+        Random random = new Random(42);
+        fromLng = new double[MOVES];
+        fromLat = new double[MOVES];
+        toLng = new double[MOVES];
+        toLat = new double[MOVES];
+        for (int i = 0; i < MOVES; i++) {
+            double angle = Math.toRadians(random.nextInt(RoutePlanner.DIRECTIONS) * 22.5);
+            fromLng[i] = minLng + random.nextDouble() * (maxLng - minLng);
+            fromLat[i] = minLat + random.nextDouble() * (maxLat - minLat);
+            toLng[i] = fromLng[i] + SystemConstants.DRONE_MOVE_DISTANCE * Math.cos(angle);
+            toLat[i] = fromLat[i] + SystemConstants.DRONE_MOVE_DISTANCE * Math.sin(angle);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public void endPointCheck(Blackhole blackhole) {
+        for (int i = 0; i < MOVES; i++) {
+            blackhole.consume(airspace.isInNoFlyZone(toLng[i], toLat[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public void segmentCheck(Blackhole blackhole) {
+        for (int i = 0; i < MOVES; i++) {
+            blackhole.consume(airspace.moveCrossesNoFlyZone(fromLng[i], fromLat[i], toLng[i], toLat[i]));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void planAllRestaurants(Blackhole blackhole) {
+        for (Restaurant restaurant : restaurants) {
+            blackhole.consume(planner.plan(restaurant.location(), appleton, airspace));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (configured like the Spring MVC message converters) reading and writing the recorded fixtures
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerialisationBenchmark {
+
+    private final ObjectMapper objectMapper = Fixtures.OBJECT_MAPPER;
+
+    private String orderJson;
+    private String noFlyZonesJson;
+    private String restaurantsJson;
+    private Order order;
+    private NamedRegion[] noFlyZones;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        orderJson = Fixtures.readResource("/json/Order.json");
+        noFlyZonesJson = Fixtures.readResource("/json/NoFlyZones.json");
+        restaurantsJson = Fixtures.readResource("/json/Restaurants.json");
+        order = objectMapper.readValue(orderJson, Order.class);
+        noFlyZones = objectMapper.readValue(noFlyZonesJson, NamedRegion[].class);
+    }
+
+    @Benchmark
+    public Order jacksonReadOrder() throws JsonProcessingException {
+        return objectMapper.readValue(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public String jacksonWriteOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public NamedRegion[] jacksonReadNamedRegions() throws JsonProcessingException {
+        return objectMapper.readValue(noFlyZonesJson, NamedRegion[].class);
+    }
+
+    @Benchmark
+    public String jacksonWriteNamedRegions() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(noFlyZones);
+    }
+
+    @Benchmark
+    public Restaurant[] jacksonReadRestaurants() throws JsonProcessingException {
+        return objectMapper.readValue(restaurantsJson, Restaurant[].class);
+    }
+}
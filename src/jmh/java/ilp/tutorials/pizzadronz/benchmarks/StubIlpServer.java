@@ -0,0 +1,60 @@
+package ilp.tutorials.pizzadronz.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+
+/**
+ * local stand-in for the ILP REST service answering with the recorded fixtures, so no benchmark touches the network
+ */
+final class StubIlpServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    StubIlpServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        serve("/restaurants", "/json/Restaurants.json");
+        serve("/noFlyZones", "/json/NoFlyZones.json");
+        serve("/centralArea", "/json/NamedRegion.json");
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void serve(String path, String resource) {
+        byte[] body = readResource(resource);
+        server.createContext(path, exchange -> respond(exchange, body));
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readResource(String resource) {
+        try (InputStream in = StubIlpServer.class.getResourceAsStream(resource)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,100 @@
+package ilp.tutorials.pizzadronz.client;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * minimal circuit breaker for the upstream REST service.
+ * After a number of consecutive failed calls the circuit opens and calls are rejected without touching the network.
+ * Once the open period has passed a single trial call is let through - its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    /**
+     * the states of the breaker
+     */
+    public enum State {
+        /**
+         * calls pass through
+         */
+        CLOSED,
+
+        /**
+         * calls are rejected
+         */
+        OPEN,
+
+        /**
+         * a single trial call is in progress
+         */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Circuit breaker failure threshold must be at least 1.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * check if a call may be made now
+     * @return true if the call may proceed
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt >= openNanos) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // a trial call is already running
+                return false;
+        }
+    }
+
+    /**
+     * report a successful call
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * report a failed call
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * the current state
+     * @return the state of the breaker
+     */
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,221 @@
+package ilp.tutorials.pizzadronz.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client for the ILP REST service.
+ * A single {@link HttpClient} is shared so connections are kept alive and reused (HTTP/2 where the server supports it).
+ * Calls are limited to a number of concurrent requests, retried with jittered exponential backoff
+ * and guarded by a {@link CircuitBreaker}. Response bodies are parsed straight from the stream with the application's
+ * {@link ObjectMapper}, into the same records the request bodies are bound to.
+ * Once bound to a meter registry every call is timed per endpoint and outcome (success, error or circuit_open).
+ */
+@Component
+public class IlpRestClient implements MeterBinder {
+
+    private final Settings settings;
+    private final HttpClient httpClient;
+    private final Semaphore permits;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+
+    // no-op until bound
+    private volatile MeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+    @Autowired
+    public IlpRestClient(@Value("${pizzadronz.rest.base-url:https://ilp-rest-2024.azurewebsites.net}") String baseUrl,
+                         @Value("${pizzadronz.rest.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                         @Value("${pizzadronz.rest.request-timeout-ms:5000}") long requestTimeoutMillis,
+                         @Value("${pizzadronz.rest.max-concurrent-requests:16}") int maxConcurrentRequests,
+                         @Value("${pizzadronz.rest.max-attempts:3}") int maxAttempts,
+                         @Value("${pizzadronz.rest.retry-backoff-ms:100}") long retryBackoffMillis,
+                         @Value("${pizzadronz.rest.circuit-failure-threshold:5}") int circuitFailureThreshold,
+                         @Value("${pizzadronz.rest.circuit-open-ms:30000}") long circuitOpenMillis,
+                         ObjectMapper objectMapper) {
+        this(new Settings(baseUrl,
+                Duration.ofMillis(connectTimeoutMillis),
+                Duration.ofMillis(requestTimeoutMillis),
+                maxConcurrentRequests,
+                maxAttempts,
+                Duration.ofMillis(retryBackoffMillis),
+                circuitFailureThreshold,
+                Duration.ofMillis(circuitOpenMillis)), objectMapper);
+    }
+
+    public IlpRestClient(Settings settings, ObjectMapper objectMapper) {
+        if (settings.maxConcurrentRequests() < 1 || settings.maxAttempts() < 1) {
+            throw new IllegalArgumentException("Concurrent requests and attempts must be at least 1.");
+        }
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(settings.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.permits = new Semaphore(settings.maxConcurrentRequests(), true);
+        this.circuitBreaker = new CircuitBreaker(settings.circuitFailureThreshold(), settings.circuitOpenDuration());
+    }
+
+    /**
+     * GET an endpoint and parse the JSON response
+     * @param endpoint is the path below the base URL, e.g. /restaurants
+     * @param responseType is the type to parse the response into
+     * @return the parsed response
+     * @param <T> the response type
+     */
+    public <T> T get(String endpoint, Class<T> responseType) {
+        long startNanos = System.nanoTime();
+        if (!circuitBreaker.tryAcquire()) {
+            record(endpoint, "circuit_open", startNanos);
+            throw new IllegalArgumentException("Failed to fetch data from REST service: " + endpoint + " (circuit open)");
+        }
+
+        boolean success = false;
+        try {
+            T result = getWithRetries(endpoint, responseType);
+            success = true;
+            return result;
+        } finally {
+            if (success) {
+                circuitBreaker.recordSuccess();
+            } else {
+                circuitBreaker.recordFailure();
+            }
+            record(endpoint, success ? "success" : "error", startNanos);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        Gauge.builder("pizzadronz.upstream.circuit.open", circuitBreaker, breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while calls to the REST service are blocked or on trial, 0 when closed")
+                .register(registry);
+    }
+
+    /**
+     * the state of the circuit breaker
+     * @return the current state
+     */
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private <T> T getWithRetries(String endpoint, Class<T> responseType) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(settings.baseUrl() + endpoint))
+                .timeout(settings.requestTimeout())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        Exception lastFailure = null;
+        for (int attempt = 1; attempt <= settings.maxAttempts(); attempt++) {
+            if (attempt > 1) {
+                backoff(attempt);
+            }
+            try {
+                return send(request, responseType);
+            } catch (RetryableException | IOException e) {
+                lastFailure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalArgumentException("Interrupted while fetching data from REST service: " + endpoint, e);
+            }
+        }
+        throw new IllegalArgumentException("Failed to fetch data from REST service: " + endpoint, lastFailure);
+    }
+
+    private <T> T send(HttpRequest request, Class<T> responseType) throws IOException, InterruptedException {
+        if (!permits.tryAcquire(settings.requestTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new RetryableException("Too many concurrent requests to " + request.uri());
+        }
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                if (status == 429 || status >= 500) {
+                    throw new RetryableException("HTTP " + status + " from " + request.uri());
+                }
+                if (status != 200) {
+                    throw new IllegalArgumentException("Failed to fetch data from REST service: HTTP " + status + " from " + request.uri());
+                }
+
+                T result = objectMapper.readValue(body, responseType);
+                if (result == null) {
+                    throw new IllegalArgumentException("Empty response from REST service: " + request.uri());
+                }
+                return result;
+            } catch (JsonProcessingException e) {
+                // not an IOException worth retrying
+                throw new IllegalArgumentException("Invalid JSON from REST service: " + request.uri(), e);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // calls take milliseconds, so looking the timer up per call costs nothing noticeable
+    private void record(String endpoint, String outcome, long startNanos) {
+        Timer.builder("pizzadronz.upstream.requests")
+                .description("calls to the REST service including retries")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // full jitter: sleep a random time up to the exponentially growing backoff
+    private void backoff(int attempt) {
+        long ceiling = settings.retryBackoff().toMillis() << Math.min(attempt - 2, 10);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * client configuration
+     * @param baseUrl is the URL of the REST service
+     * @param connectTimeout is the maximum time to establish a connection
+     * @param requestTimeout is the maximum time for a single request
+     * @param maxConcurrentRequests limits the number of parallel requests to the service
+     * @param maxAttempts is the number of tries per call (1 = no retries)
+     * @param retryBackoff is the base backoff between retries
+     * @param circuitFailureThreshold is the number of consecutive failed calls that opens the circuit
+     * @param circuitOpenDuration is how long the circuit stays open before a trial call
+     */
+    public record Settings(String baseUrl, Duration connectTimeout, Duration requestTimeout, int maxConcurrentRequests,
+                           int maxAttempts, Duration retryBackoff, int circuitFailureThreshold, Duration circuitOpenDuration) {
+    }
+
+    private static final class RetryableException extends RuntimeException {
+        RetryableException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ilp.tutorials.pizzadronz.controllers;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+/**
+ * the body of /nextPosition
+ * @param start is the current position of the drone
+ * @param angle is the direction of the move in degrees
+ */
+public record NextPositionRequest(LngLat start, Double angle) {
+}
@@ -1,25 +1,52 @@
 package ilp.tutorials.pizzadronz.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import ilp.tutorials.pizzadronz.geometry.GeoJsonWriter;
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.planning.CostToGoFields;
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import ilp.tutorials.pizzadronz.planning.DeliveryPlanner;
+import ilp.tutorials.pizzadronz.services.MenuIndex;
+import ilp.tutorials.pizzadronz.services.OrderBatchValidator;
+import ilp.tutorials.pizzadronz.services.OrderValidator;
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.ac.ed.inf.ilp.data.LngLat;
 import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
-import uk.ac.ed.inf.ilp.constant.SystemConstants;
 import uk.ac.ed.inf.ilp.data.*;
-import com.google.gson.Gson;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.List;
-import java.util.Map;
-import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 public class PizzaDronzController {
 
-    private static final String BASE_REST_URL = "https://ilp-rest-2024.azurewebsites.net";
-    private final Gson gson = new Gson();
+    private static final MediaType GEO_JSON = MediaType.parseMediaType("application/geo+json");
+
+    private final ReferenceDataService referenceDataService;
+    private final DeliveryPlanner deliveryPlanner;
+    private final RouteCache routeCache;
+    private final LngLatHandler lngLatHandler;
+    private final OrderBatchValidator orderBatchValidator;
+    private final OrderValidator orderValidator;
+
+    public PizzaDronzController(ReferenceDataService referenceDataService, DeliveryPlanner deliveryPlanner, RouteCache routeCache,
+                                LngLatHandler lngLatHandler, OrderBatchValidator orderBatchValidator, OrderValidator orderValidator) {
+        this.referenceDataService = referenceDataService;
+        this.deliveryPlanner = deliveryPlanner;
+        this.routeCache = routeCache;
+        this.lngLatHandler = lngLatHandler;
+        this.orderBatchValidator = orderBatchValidator;
+        this.orderValidator = orderValidator;
+    }
 
     // receive uuid from system
     @GetMapping("/uuid")
@@ -27,15 +54,36 @@ public class PizzaDronzController {
         return "s2190304";
     }
 
+    // statistics of the in-memory reference data
+    @GetMapping("/referenceDataStats")
+    public ReferenceDataService.Stats referenceDataStats() {
+        return referenceDataService.stats();
+    }
+
+    // statistics of the planned path cache
+    @GetMapping("/routeCacheStats")
+    public RouteCache.Stats routeCacheStats() {
+        return routeCache.stats();
+    }
+
+    // size and build time of the cost-to-go field, and how many paths it answered
+    @GetMapping("/costToGoFieldStats")
+    public CostToGoFields.Stats costToGoFieldStats() {
+        return deliveryPlanner.costToGoFieldStats();
+    }
+
+    // per-rule counters and timings of order validation
+    @GetMapping("/orderValidationStats")
+    public OrderValidator.Stats orderValidationStats() {
+        return orderValidator.stats();
+    }
+
     // calculate distance between two positions
     @PostMapping("/distanceTo")
-    public ResponseEntity<?> distanceTo(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> distanceTo(@RequestBody PositionPairRequest request) {
         try {
-            LngLat position1 = parseLngLat(request.get("position1"));
-            LngLat position2 = parseLngLat(request.get("position2"));
-
-            validateCoordinates(position1);
-            validateCoordinates(position2);
+            LngLat position1 = requirePosition(request.position1());
+            LngLat position2 = requirePosition(request.position2());
 
             double distance = calculateDistance(position1, position2);
             return ResponseEntity.ok(distance);
@@ -46,16 +94,12 @@ public class PizzaDronzController {
 
     // check if two positions within a certain proximity
     @PostMapping("/isCloseTo")
-    public ResponseEntity<?> isCloseTo(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> isCloseTo(@RequestBody PositionPairRequest request) {
         try {
-            LngLat position1 = parseLngLat(request.get("position1"));
-            LngLat position2 = parseLngLat(request.get("position2"));
+            LngLat position1 = requirePosition(request.position1());
+            LngLat position2 = requirePosition(request.position2());
 
-            validateCoordinates(position1);
-            validateCoordinates(position2);
-
-            double distance = calculateDistance(position1, position2);
-            return ResponseEntity.ok(distance < 0.00015);
+            return ResponseEntity.ok(lngLatHandler.isCloseTo(position1, position2));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
@@ -63,19 +107,16 @@ public class PizzaDronzController {
 
     // calculate next position of drone based on starting position + angle
     @PostMapping("/nextPosition")
-    public ResponseEntity<?> nextPosition(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> nextPosition(@RequestBody NextPositionRequest request) {
         try {
-            Map<String, Double> startMap = castToMap(request.get("start"));
-            Double angle = castToDouble(request.get("angle"));
-
-            if (startMap == null || angle == null) {
+            if (request.start() == null || request.angle() == null) {
                 throw new IllegalArgumentException("Invalid or missing input for start or angle.");
             }
 
-            LngLat start = new LngLat(startMap.get("lng"), startMap.get("lat"));
+            LngLat start = request.start();
             validateCoordinates(start);
 
-            LngLat nextPos = calculateNextPosition(start, angle);
+            LngLat nextPos = lngLatHandler.nextPosition(start, request.angle());
             return ResponseEntity.ok(nextPos);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -84,21 +125,20 @@ public class PizzaDronzController {
 
     // check if a given position is within specified region
     @PostMapping("/isInRegion")
-    public ResponseEntity<?> isInRegion(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> isInRegion(@RequestBody RegionRequest request) {
         try {
-            LngLat position = parseLngLat(request.get("position"));
-            validateCoordinates(position);
+            LngLat position = requirePosition(request.position());
 
-            List<LngLat> vertices = extractVertices(castToList(request.get("region"), "vertices"));
-            if (vertices.size() < 3) {
+            LngLat[] vertices = (request.region() == null) ? null : request.region().vertices();
+            if (vertices == null || vertices.length < 3) {
                 throw new IllegalArgumentException("Region must have at least 3 vertices.");
             }
 
             for (LngLat vertex : vertices) {
-                validateCoordinates(vertex);
+                requirePosition(vertex);
             }
 
-            boolean isInRegion = isPointInPolygon(position, vertices);
+            boolean isInRegion = lngLatHandler.isInRegion(position, request.region());
             return ResponseEntity.ok(isInRegion);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -110,79 +150,125 @@ public class PizzaDronzController {
     public ResponseEntity<Order> validateOrder(@RequestBody Order order) {
         OrderValidationCode code;
         try {
-            code = validateOrderLogic(order);
+            code = validateOrderLogic(order, referenceDataService.snapshot().menuIndex());
         } catch (IllegalArgumentException e) {
             code = OrderValidationCode.PIZZA_NOT_DEFINED;
         }
         return ResponseEntity.ok(withValidationResult(order, code));
     }
 
-
+    // validate a JSON array or NDJSON stream of orders, results are streamed back in input order and in the format of the body
+    @PostMapping(value = "/validateOrders", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> validateOrders(InputStream body) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(body);
+        boolean array = OrderBatchValidator.startsWithArray(input);
+        MediaType responseType = array ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_NDJSON;
+        // all orders of a batch are validated against the same snapshot
+        MenuIndex menuIndex = referenceDataService.snapshot().menuIndex();
+        StreamingResponseBody results = out -> orderBatchValidator.validate(input, out, array, order -> validateSafely(order, menuIndex));
+        return ResponseEntity.ok().contentType(responseType).body(results);
+    }
 
     // work out drone's delivery path for given order
     @PostMapping("/calcDeliveryPath")
     public ResponseEntity<?> calcDeliveryPath(@RequestBody Order order) {
-        OrderValidationCode code = validateOrderLogic(order);
+        ReferenceData referenceData = referenceDataService.snapshot();
+        OrderValidationCode code = validateOrderLogic(order, referenceData.menuIndex());
 
         if (code != OrderValidationCode.NO_ERROR) {
             return ResponseEntity.ok(withValidationResult(order, code));
         }
 
-        List<LngLat> path = calculatePath(order);
-        return ResponseEntity.ok(path);
+        try {
+            List<LngLat> path = calculatePath(order, referenceData);
+            return ResponseEntity.ok(path);
+        } catch (IllegalArgumentException e) {
+            // no path within the move budget, answered like /calcRoundTrip
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
+    // work out the whole flight for given order: out to the restaurant, hover for pickup, back and hover for drop-off
+    @PostMapping("/calcRoundTrip")
+    public ResponseEntity<?> calcRoundTrip(@RequestBody Order order) {
+        ReferenceData referenceData = referenceDataService.snapshot();
+        OrderValidationCode code = validateOrderLogic(order, referenceData.menuIndex());
+
+        if (code != OrderValidationCode.NO_ERROR) {
+            return ResponseEntity.ok(withValidationResult(order, code));
+        }
+
+        try {
+            return ResponseEntity.ok(deliveryPlanner.planRoundTrip(order, referenceData));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // work out the delivery paths of many orders, each distinct route is planned once and referenced by index
+    @PostMapping("/calcDeliveryPaths")
+    public ResponseEntity<DeliveryPlanner.BatchPlan> calcDeliveryPaths(@RequestBody List<Order> orders) {
+        ReferenceData referenceData = referenceDataService.snapshot();
+        MenuIndex menuIndex = referenceData.menuIndex();
+        return ResponseEntity.ok(deliveryPlanner.planBatch(orders, referenceData, order -> validateSafely(order, menuIndex)));
+    }
+
+    // schedule a day of orders as shared trips per restaurant on a fleet of drones
+    @PostMapping("/planFleet")
+    public ResponseEntity<?> planFleet(@RequestBody List<Order> orders,
+                                       @RequestParam(defaultValue = "${pizzadronz.fleet.drones:10}") int drones) {
+        ReferenceData referenceData = referenceDataService.snapshot();
+        MenuIndex menuIndex = referenceData.menuIndex();
+        try {
+            return ResponseEntity.ok(deliveryPlanner.planFleet(orders, referenceData, order -> validateSafely(order, menuIndex), drones));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
 
     // work out delivery path then return as GeoJSON object
     @PostMapping("/calcDeliveryPathAsGeoJson")
     public ResponseEntity<?> calcDeliveryPathAsGeoJson(@RequestBody Order order) {
         try {
-            OrderValidationCode validationCode = validateOrderLogic(order);
+            ReferenceData referenceData = referenceDataService.snapshot();
+            OrderValidationCode validationCode = validateOrderLogic(order, referenceData.menuIndex());
             if (validationCode != OrderValidationCode.NO_ERROR) {
                 throw new IllegalArgumentException("Invalid order: " + validationCode.name());
             }
 
-            List<LngLat> path = calculatePath(order);
-            String geoJson = convertPathToGeoJson(path);
-            return ResponseEntity.ok(geoJson);
+            List<LngLat> path = calculatePath(order, referenceData);
+            StreamingResponseBody geoJson = out -> {
+                GeoJsonWriter writer = new GeoJsonWriter(out);
+                writer.writeLineString(path);
+                writer.flush();
+            };
+            return ResponseEntity.ok().contentType(GEO_JSON).body(geoJson);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
-    // utility methods
-    private boolean closeTo(LngLat a, LngLat b) {
-        double distance = Math.sqrt(Math.pow(a.lng() - b.lng(), 2) + Math.pow(a.lat() - b.lat(), 2));
-        return distance < SystemConstants.DRONE_MOVE_DISTANCE;
+    // work out the delivery paths of many orders and stream them as a GeoJSON FeatureCollection (invalid orders are left out)
+    @PostMapping("/calcDeliveryPathsAsGeoJson")
+    public ResponseEntity<StreamingResponseBody> calcDeliveryPathsAsGeoJson(@RequestBody List<Order> orders) {
+        DeliveryPlanner.BatchPlan plan = calcDeliveryPaths(orders).getBody();
+        StreamingResponseBody featureCollection = out -> {
+            GeoJsonWriter writer = new GeoJsonWriter(out);
+            writer.startFeatureCollection();
+            for (DeliveryPlanner.OrderRoute order : plan.orders()) {
+                if (order.route() >= 0) {
+                    writer.writeFeature(plan.routes().get(order.route()), order.orderNo());
+                }
+            }
+            writer.endFeatureCollection();
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(GEO_JSON).body(featureCollection);
     }
 
+    // utility methods
     public double calculateDistance(LngLat pos1, LngLat pos2) {
-        double dLng = pos1.lng() - pos2.lng();
-        double dLat = pos1.lat() - pos2.lat();
-        return Math.sqrt(dLng * dLng + dLat * dLat);
-    }
-
-    private LngLat calculateNextPosition(LngLat start, double angle) {
-        double distance = 0.00015; // Move distance
-        double radians = Math.toRadians(angle);
-        double newLng = start.lng() + distance * Math.cos(radians);
-        double newLat = start.lat() + distance * Math.sin(radians);
-        return new LngLat(newLng, newLat);
-    }
-
-    private boolean isPointInPolygon(LngLat point, List<LngLat> vertices) {
-        int n = vertices.size();
-        boolean inside = false;
-
-        for (int i = 0, j = n - 1; i < n; j = i++) {
-            double xi = vertices.get(i).lng(), yi = vertices.get(i).lat();
-            double xj = vertices.get(j).lng(), yj = vertices.get(j).lat();
-
-            boolean intersect = ((yi > point.lat()) != (yj > point.lat())) &&
-                    (point.lng() < (xj - xi) * (point.lat() - yi) / (yj - yi) + xi);
-            if (intersect) inside = !inside;
-        }
-        return inside;
+        return lngLatHandler.distanceTo(pos1, pos2);
     }
 
     public void validateCoordinates(LngLat coordinates) {
@@ -194,356 +280,44 @@ public class PizzaDronzController {
         }
     }
 
-    // utility method to parse a position object
-    private LngLat parseLngLat(Object obj) {
-        if (obj instanceof Map<?, ?> map) {
-            Object lng = map.get("lng");
-            Object lat = map.get("lat");
-            if (lng instanceof Number && lat instanceof Number) {
-                return new LngLat(((Number) lng).doubleValue(), ((Number) lat).doubleValue());
-            } else {
-                throw new IllegalArgumentException("Coordinates must be numeric: lng=" + lng + ", lat=" + lat);
-            }
-        }
-        throw new IllegalArgumentException("Invalid coordinate object: " + obj);
-    }
-
-    private List<LngLat> extractVertices(List<Map<String, Double>> vertexData) {
-        List<LngLat> vertices = new ArrayList<>();
-        for (Map<String, Double> data : vertexData) {
-            vertices.add(new LngLat(data.get("lng"), data.get("lat")));
-        }
-        return vertices;
-    }
-
-    private Map<String, Double> castToMap(Object obj) {
-        if (obj instanceof Map<?, ?> map) {
-            return (Map<String, Double>) map;
+    // a position of a request must be present and within range
+    private LngLat requirePosition(LngLat position) {
+        if (position == null) {
+            throw new IllegalArgumentException("Invalid coordinate object: null");
         }
-        return null;
+        validateCoordinates(position);
+        return position;
     }
 
-    private Double castToDouble(Object obj) {
-        if (obj instanceof Number) {
-            return ((Number) obj).doubleValue();
-        }
-        return null;
+    // request bodies that cannot be bound (malformed JSON, missing coordinates) are answered with 400 and the reason
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> unreadableRequest(HttpMessageNotReadableException e) {
+        String reason = (e.getMostSpecificCause() instanceof JsonProcessingException json) ? json.getOriginalMessage() : e.getMessage();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid request body: " + reason);
     }
 
-    private <T> List<Map<String, T>> castToList(Object obj, String key) {
-        if (obj instanceof Map<?, ?> map && map.get(key) instanceof List<?>) {
-            return (List<Map<String, T>>) map.get(key);
-        }
-        return null;
-    }
-
-    // validate logic for the order to make sure it meets requirements
-    private OrderValidationCode validateOrderLogic(Order order) {
-        if (order == null || order.getPizzasInOrder() == null || order.getPizzasInOrder().length == 0) {
-            return OrderValidationCode.EMPTY_ORDER;
-        }
-
-        if (order.getPizzasInOrder().length > SystemConstants.MAX_PIZZAS_PER_ORDER) {
-            return OrderValidationCode.MAX_PIZZA_COUNT_EXCEEDED;
-        }
-
-        int calculatedTotal = Arrays.stream(order.getPizzasInOrder()).mapToInt(Pizza::priceInPence).sum();
-        if (calculatedTotal + SystemConstants.ORDER_CHARGE_IN_PENCE != order.getPriceTotalInPence()) {
-            return OrderValidationCode.TOTAL_INCORRECT;
-        }
-
-        // Validate credit card information directly
-        CreditCardInformation cc = order.getCreditCardInformation();
-        if (cc == null || cc.getCreditCardNumber() == null || !cc.getCreditCardNumber().matches("\\d{16}")) {
-            return OrderValidationCode.CARD_NUMBER_INVALID;
-        }
-        if (cc.getCreditCardExpiry() == null || !isValidExpiryDate(cc.getCreditCardExpiry())) {
-            return OrderValidationCode.EXPIRY_DATE_INVALID;
-        }
-        if (cc.getCvv() == null || !cc.getCvv().matches("\\d{3}")) {
-            return OrderValidationCode.CVV_INVALID;
-        }
-
-
-        if (!validateRestaurants(order)) {
-            return OrderValidationCode.PIZZA_FROM_MULTIPLE_RESTAURANTS;
-        }
-
-        return OrderValidationCode.NO_ERROR;
-    }
-
-    //validating expiry date
-    private boolean isValidExpiryDate(String expiryDate) {
-
-        if (!expiryDate.matches("\\d{2}/\\d{2}")) {
-            return false;
-        }
-
+    // validation of a single order of a batch, answered like /validateOrder
+    private OrderValidationCode validateSafely(Order order, MenuIndex menuIndex) {
         try {
-
-            String[] parts = expiryDate.split("/");
-            int month = Integer.parseInt(parts[0]);
-            int year = Integer.parseInt(parts[1]);
-
-
-            if (month < 1 || month > 12) {
-                return false;
-            }
-
-
-            java.time.YearMonth currentYearMonth = java.time.YearMonth.now();
-            int currentYear = currentYearMonth.getYear() % 100;
-            int currentMonth = currentYearMonth.getMonthValue();
-
-
-            java.time.YearMonth expiryYearMonth = java.time.YearMonth.of(2000 + year, month);
-
-
-            java.time.YearMonth maxExpiryDate = currentYearMonth.plusYears(5);
-            return !expiryYearMonth.isBefore(currentYearMonth) && !expiryYearMonth.isAfter(maxExpiryDate);
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-// validating credit card
-    private boolean isValidCreditCard(CreditCardInformation creditCardInfo) {
-        if (creditCardInfo == null) return false;
-
-        String cardNumber = creditCardInfo.getCreditCardNumber();
-        String expiryDate = creditCardInfo.getCreditCardExpiry();
-        String cvv = creditCardInfo.getCvv();
-
-
-        if (cardNumber == null || !cardNumber.matches("\\d{16}")) {
-            return false;
-        }
-
-
-        if (expiryDate == null || !isValidExpiryDate(expiryDate)) {
-            return false;
-        }
-
-
-        if (cvv == null || !cvv.matches("\\d{3}")) {
-            return false;
+            return validateOrderLogic(order, menuIndex);
+        } catch (IllegalArgumentException e) {
+            return OrderValidationCode.PIZZA_NOT_DEFINED;
         }
-
-        return true;
     }
 
-
-    // checking pizzas are valid
-    private boolean validateRestaurants(Order order) {
-
-        Restaurant[] restaurants = fetchAndParse("/restaurants", Restaurant[].class);
-
-
-        Map<String, String> pizzaToRestaurantMap = Arrays.stream(restaurants)
-                .flatMap(restaurant -> Arrays.stream(restaurant.menu())
-                        .map(pizza -> Map.entry(pizza.name(), restaurant.name())))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-
-        Set<String> restaurantNames = Arrays.stream(order.getPizzasInOrder())
-                .map(pizza -> {
-                    String restaurantName = pizzaToRestaurantMap.get(pizza.name());
-                    if (restaurantName == null) {
-                        throw new IllegalArgumentException("Invalid pizza name: " + pizza.name());
-                    }
-                    return restaurantName;
-                })
-                .collect(Collectors.toSet());
-
-
-        return restaurantNames.size() == 1;
+    // validate logic for the order to make sure it meets requirements
+    private OrderValidationCode validateOrderLogic(Order order, MenuIndex menuIndex) {
+        return orderValidator.validate(order, menuIndex);
     }
 
     // calculate delivery path for an order
     public List<LngLat> calculatePath(Order order) {
-        LngLat start = getRestaurantLocation(order);
-        LngLat destination = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
-
-        List<NamedRegion> noFlyZones = getNoFlyZones();
-        return calculateDirectPath(start, destination, noFlyZones);
-    }
-
-    // find an alternative path if the drone enters a no-fly zone
-    private LngLat findAlternativePath(LngLat current, LngLat target, List<NamedRegion> noFlyZones) {
-        double moveDistance = SystemConstants.DRONE_MOVE_DISTANCE;
-
-        for (int angleStep = 0; angleStep <= 360; angleStep += 15) {
-            double adjustedAngle = Math.toRadians(angleStep);
-            double angleToTarget = Math.atan2(target.lat() - current.lat(), target.lng() - current.lng());
-
-
-            double newAngle = angleToTarget + adjustedAngle;
-            double nextLng = current.lng() + moveDistance * Math.cos(newAngle);
-            double nextLat = current.lat() + moveDistance * Math.sin(newAngle);
-
-            LngLat candidateStep = new LngLat(nextLng, nextLat);
-
-
-            if (!isInNoFlyZone(candidateStep, noFlyZones)) {
-                return candidateStep;
-            }
-        }
-
-        return null;
-    }
-
-    // extract restaurant prefix from a pizza name
-    private String extractPrefixFromPizzaName(String pizzaName) {
-        if (pizzaName.contains(":")) {
-            return pizzaName.split(":")[0].trim();
-        }
-        throw new IllegalArgumentException("Invalid pizza name: " + pizzaName);
-    }
-
-    // retrieve the location of the restaurant for the given order
-    private LngLat getRestaurantLocation(Order order) {
-        String restaurantPrefix = getRestaurantPrefix(order);
-        Restaurant[] restaurants = fetchAndParse("/restaurants", Restaurant[].class);
-
-
-        return Arrays.stream(restaurants)
-                .filter(restaurant -> Arrays.stream(restaurant.menu())
-                        .anyMatch(pizza -> pizza.name().startsWith(restaurantPrefix + ":")))
-                .map(Restaurant::location)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Restaurant not found for prefix: " + restaurantPrefix));
-    }
-
-    // fetches and parses the REST API response into the desired type
-    public <T> T fetchAndParse(String endpoint, Class<T> responseType) {
-        String response = fetchFromRestService(endpoint);
-        return gson.fromJson(response, responseType);
-    }
-
-    // extracts the prefix for the restaurant from the order
-    private String getRestaurantPrefix(Order order) {
-        return Arrays.stream(order.getPizzasInOrder())
-                .findFirst()
-                .map(pizza -> extractPrefixFromPizzaName(pizza.name()))
-                .orElseThrow(() -> new IllegalArgumentException("Order contains no pizzas."));
+        return calculatePath(order, referenceDataService.snapshot());
     }
 
-    // fetch no-fly zones from the REST service
-    private List<NamedRegion> getNoFlyZones() {
-        return Arrays.asList(fetchAndParse("/noFlyZones", NamedRegion[].class));
-    }
-
-    // convert a path of LngLat points to GeoJSON format
-    private String convertPathToGeoJson(List<LngLat> path) {
-        Map<String, Object> geoJson = new HashMap<>();
-        geoJson.put("type", "LineString");
-        geoJson.put("coordinates", path.stream()
-                .map(point -> Arrays.asList(point.lng(), point.lat()))
-                .collect(Collectors.toList()));
-        return gson.toJson(geoJson);
-    }
-
-    // fetch data from the REST service
-    private String fetchFromRestService(String endpoint) {
-        try {
-            java.net.URL url = new java.net.URL(BASE_REST_URL + endpoint);
-            java.net.HttpURLConnection conn = (java.net.HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Accept", "application/json");
-
-            try (java.io.InputStreamReader reader = new java.io.InputStreamReader(conn.getInputStream())) {
-                return new java.util.Scanner(reader).useDelimiter("\\A").next();
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Failed to fetch data from REST service: " + endpoint, e);
-        }
-    }
-
-    // fetch the central area boundary as LngLat points
-    private List<LngLat> getCentralAreaBoundary() {
-        Map<String, Object> centralArea = fetchAndParse("/centralArea", Map.class);
-
-
-        if (!centralArea.containsKey("vertices") || centralArea.get("vertices") == null) {
-            throw new IllegalArgumentException("Central Area response is missing 'vertices'.");
-        }
-
-        List<Map<String, Double>> vertices = (List<Map<String, Double>>) centralArea.get("vertices");
-        List<LngLat> boundaryPoints = new ArrayList<>();
-
-
-        for (Map<String, Double> vertex : vertices) {
-            double lng = vertex.get("lng");
-            double lat = vertex.get("lat");
-            boundaryPoints.add(new LngLat(lng, lat));
-        }
-
-        return boundaryPoints;
-    }
-
-    // check if a point is inside the central area boundary
-    private boolean isInsideCentralArea(LngLat point, List<LngLat> centralAreaBoundary) {
-        return isPointInPolygon(point, centralAreaBoundary);
-    }
-
-    // calculate a direct path from start to the destination while avoiding no-fly zones
-    private List<LngLat> calculateDirectPath(LngLat start, LngLat end, List<NamedRegion> noFlyZones) {
-        List<LngLat> path = new ArrayList<>();
-        List<LngLat> centralAreaBoundary = getCentralAreaBoundary();
-        boolean hasEnteredCentralArea = false;
-
-        LngLat current = start;
-
-        while (!closeTo(current, end)) {
-            path.add(current);
-
-
-            if (isInsideCentralArea(current, centralAreaBoundary)) {
-                hasEnteredCentralArea = true;
-            }
-
-
-            if (hasEnteredCentralArea && !isInsideCentralArea(current, centralAreaBoundary)) {
-                throw new IllegalArgumentException("Illegal path: Exited Central Area after entering.");
-            }
-
-
-            current = moveToNextStep(current, end, noFlyZones);
-        }
-
-        path.add(end);
-        return path;
-    }
-
-    // move the drone toward the target while avoiding no-fly zones
-    private LngLat moveToNextStep(LngLat current, LngLat target, List<NamedRegion> noFlyZones) {
-        LngLat nextStep = moveToward(current, target);
-        if (isInNoFlyZone(nextStep, noFlyZones)) {
-            nextStep = findAlternativePath(current, target, noFlyZones);
-            if (nextStep == null) {
-                throw new IllegalArgumentException("No valid path found avoiding no-fly zones.");
-            }
-        }
-        return nextStep;
-    }
-
-    // move towards the target by one step
-    private LngLat moveToward(LngLat current, LngLat target) {
-        double moveDistance = SystemConstants.DRONE_MOVE_DISTANCE;
-        double angle = Math.atan2(target.lat() - current.lat(), target.lng() - current.lng());
-        double nextLng = current.lng() + moveDistance * Math.cos(angle);
-        double nextLat = current.lat() + moveDistance * Math.sin(angle);
-        return new LngLat(nextLng, nextLat);
-    }
-
-    // check if a point is in no-fly zone
-    private boolean isInNoFlyZone(LngLat point, List<NamedRegion> noFlyZones) {
-        for (NamedRegion zone : noFlyZones) {
-            if (isPointInPolygon(point, Arrays.asList(zone.vertices()))) {
-                return true;
-            }
-        }
-        return false;
+    // calculate delivery path for an order against the snapshot it was validated with
+    public List<LngLat> calculatePath(Order order, ReferenceData referenceData) {
+        return deliveryPlanner.plan(order, referenceData);
     }
 
     private Order withValidationResult(Order order, OrderValidationCode code) {
@@ -0,0 +1,11 @@
+package ilp.tutorials.pizzadronz.controllers;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+/**
+ * the body of /distanceTo and /isCloseTo
+ * @param position1 is the first position
+ * @param position2 is the second position
+ */
+public record PositionPairRequest(LngLat position1, LngLat position2) {
+}
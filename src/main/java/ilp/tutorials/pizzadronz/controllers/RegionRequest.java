@@ -0,0 +1,12 @@
+package ilp.tutorials.pizzadronz.controllers;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+/**
+ * the body of /isInRegion
+ * @param position is the position to test
+ * @param region is the region, only its vertices are used
+ */
+public record RegionRequest(LngLat position, NamedRegion region) {
+}
@@ -0,0 +1,99 @@
+package ilp.tutorials.pizzadronz.geometry;
+
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+import java.util.List;
+
+/**
+ * the prepared geometry a drone has to respect: the no-fly zones and the central area.
+ * Built once per reference data snapshot, so the zone index is rebuilt whenever the reference data changes.
+ */
+public final class Airspace {
+
+    private final PreparedRegion[] noFlyZones;
+    private final ZoneIndex zoneIndex;
+    private final PreparedRegion centralArea;
+    // the central area is normally a rectangle, which its bounding box describes exactly
+    private final boolean centralAreaIsRectangle;
+
+    private Airspace(PreparedRegion[] noFlyZones, PreparedRegion centralArea, boolean centralAreaIsRectangle) {
+        this.noFlyZones = noFlyZones;
+        this.zoneIndex = ZoneIndex.of(List.of(noFlyZones));
+        this.centralArea = centralArea;
+        this.centralAreaIsRectangle = centralAreaIsRectangle;
+    }
+
+    /**
+     * prepare the no-fly zones and the central area
+     * @param noFlyZones are the no-fly zones
+     * @param centralArea is the central area
+     * @return the airspace
+     */
+    public static Airspace of(List<NamedRegion> noFlyZones, NamedRegion centralArea) {
+        PreparedRegion[] zones = new PreparedRegion[noFlyZones.size()];
+        for (int i = 0; i < zones.length; i++) {
+            zones[i] = PreparedRegion.of(noFlyZones.get(i));
+        }
+        return new Airspace(zones, PreparedRegion.of(centralArea), LngLatHandler.isAxisAlignedRectangle(centralArea.vertices()));
+    }
+
+    /**
+     * check if a position is in any no-fly zone (including the border)
+     * @param lng is the longitude
+     * @param lat is the latitude
+     * @return if the position is not allowed
+     */
+    public boolean isInNoFlyZone(double lng, double lat) {
+        return zoneIndex.contains(lng, lat);
+    }
+
+    /**
+     * check if a move touches any no-fly zone anywhere along its way (including the end points)
+     * @param fromLng is the longitude the move starts at
+     * @param fromLat is the latitude the move starts at
+     * @param toLng is the longitude the move ends at
+     * @param toLat is the latitude the move ends at
+     * @return if the move is not allowed
+     */
+    public boolean moveCrossesNoFlyZone(double fromLng, double fromLat, double toLng, double toLat) {
+        return zoneIndex.intersectsSegment(fromLng, fromLat, toLng, toLat);
+    }
+
+    /**
+     * check if a position is in the central area (including the border)
+     * @param lng is the longitude
+     * @param lat is the latitude
+     * @return if the position is in the central area
+     */
+    public boolean isInCentralArea(double lng, double lat) {
+        if (centralAreaIsRectangle) {
+            return lng >= centralArea.minLng() && lng <= centralArea.maxLng()
+                    && lat >= centralArea.minLat() && lat <= centralArea.maxLat();
+        }
+        return centralArea.contains(lng, lat);
+    }
+
+    /**
+     * the prepared no-fly zones
+     * @return an unmodifiable list of the zones
+     */
+    public List<PreparedRegion> noFlyZones() {
+        return List.of(noFlyZones);
+    }
+
+    /**
+     * the spatial index over the no-fly zones
+     * @return the index
+     */
+    public ZoneIndex zoneIndex() {
+        return zoneIndex;
+    }
+
+    /**
+     * the prepared central area
+     * @return the central area
+     */
+    public PreparedRegion centralArea() {
+        return centralArea;
+    }
+}
@@ -0,0 +1,165 @@
+package ilp.tutorials.pizzadronz.geometry;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * writes delivery paths as GeoJSON straight to an output stream.
+ * Coordinates are appended as primitive doubles (read straight from the arrays of a {@link PackedPath}) to one reusable buffer which is passed on whenever it fills up,
+ * so neither boxed coordinates nor the whole document are ever held in memory.
+ * Not thread-safe; use one writer per response.
+ */
+public final class GeoJsonWriter implements Flushable {
+
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private final Writer out;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+    private char[] chars = new char[FLUSH_THRESHOLD + 256];
+
+    private boolean inFeatureCollection;
+    private boolean firstFeature;
+
+    public GeoJsonWriter(OutputStream out) {
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * write a path as a single LineString geometry
+     * @param path is the path
+     * @throws IOException if writing fails
+     */
+    public void writeLineString(List<LngLat> path) throws IOException {
+        appendLineString(path);
+        drainIfFull();
+    }
+
+    /**
+     * open a FeatureCollection, to be followed by any number of features and {@link #endFeatureCollection()}
+     * @throws IOException if writing fails
+     */
+    public void startFeatureCollection() throws IOException {
+        if (inFeatureCollection) {
+            throw new IllegalStateException("FeatureCollection already started.");
+        }
+        inFeatureCollection = true;
+        firstFeature = true;
+        buffer.append("{\"type\":\"FeatureCollection\",\"features\":[");
+    }
+
+    /**
+     * write a path as a LineString feature of the open FeatureCollection
+     * @param path is the path
+     * @param orderNo is stored in the properties of the feature
+     * @throws IOException if writing fails
+     */
+    public void writeFeature(List<LngLat> path, String orderNo) throws IOException {
+        if (!inFeatureCollection) {
+            throw new IllegalStateException("No FeatureCollection started.");
+        }
+        if (!firstFeature) {
+            buffer.append(',');
+        }
+        firstFeature = false;
+
+        buffer.append("{\"type\":\"Feature\",\"properties\":{\"orderNo\":");
+        appendString(orderNo);
+        buffer.append("},\"geometry\":");
+        appendLineString(path);
+        buffer.append('}');
+        drainIfFull();
+    }
+
+    /**
+     * close the open FeatureCollection
+     * @throws IOException if writing fails
+     */
+    public void endFeatureCollection() throws IOException {
+        if (!inFeatureCollection) {
+            throw new IllegalStateException("No FeatureCollection started.");
+        }
+        inFeatureCollection = false;
+        buffer.append("]}");
+        drainIfFull();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void appendLineString(List<LngLat> path) throws IOException {
+        buffer.append("{\"type\":\"LineString\",\"coordinates\":[");
+        if (path instanceof PackedPath packed) {
+            for (int i = 0, n = packed.size(); i < n; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                buffer.append('[').append(packed.lng(i)).append(',').append(packed.lat(i)).append(']');
+                drainIfFull();
+            }
+            buffer.append("]}");
+            return;
+        }
+        for (int i = 0, n = path.size(); i < n; i++) {
+            LngLat position = path.get(i);
+            if (i > 0) {
+                buffer.append(',');
+            }
+            buffer.append('[').append(position.lng()).append(',').append(position.lat()).append(']');
+            drainIfFull();
+        }
+        buffer.append("]}");
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            buffer.append("null");
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+                }
+            }
+        }
+        buffer.append('"');
+    }
+
+    private void drainIfFull() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            drain();
+        }
+    }
+
+    // copies through a reusable char array, Writer.append(CharSequence) would create a String each time
+    private void drain() throws IOException {
+        int length = buffer.length();
+        if (length > chars.length) {
+            chars = new char[length];
+        }
+        buffer.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+        buffer.setLength(0);
+    }
+}
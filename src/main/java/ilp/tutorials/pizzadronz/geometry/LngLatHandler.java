@@ -0,0 +1,161 @@
+package ilp.tutorials.pizzadronz.geometry;
+
+import org.springframework.stereotype.Component;
+import uk.ac.ed.inf.ilp.constant.CentralRegionVertexOrder;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.interfaces.LngLatHandling;
+
+/**
+ * the LngLat computations of the service, shared by the endpoints and the route planner.
+ * Closeness is decided on squared distances, and moves in the 16 compass directions come from precomputed tables
+ * instead of calling cos / sin. The static (double, double) variants need no LngLat objects.
+ * Regions laid out like the central area (an axis-aligned rectangle in {@link CentralRegionVertexOrder}) are answered
+ * with four comparisons, all other regions with a prepared polygon test.
+ */
+@Component
+public class LngLatHandler implements LngLatHandling {
+
+    /**
+     * the number of compass directions a drone can move in, 360 / 16 = 22.5 degrees apart
+     */
+    public static final int COMPASS_DIRECTIONS = 16;
+
+    private static final double COMPASS_STEP_DEGREES = 360.0 / COMPASS_DIRECTIONS;
+    private static final double CLOSE_DISTANCE_SQUARED = SystemConstants.DRONE_IS_CLOSE_DISTANCE * SystemConstants.DRONE_IS_CLOSE_DISTANCE;
+
+    // the change of longitude / latitude of one move in each compass direction, 0 = east, counterclockwise
+    private static final double[] MOVE_LNG = new double[COMPASS_DIRECTIONS];
+    private static final double[] MOVE_LAT = new double[COMPASS_DIRECTIONS];
+
+    static {
+        for (int i = 0; i < COMPASS_DIRECTIONS; i++) {
+            double radians = Math.toRadians(i * COMPASS_STEP_DEGREES);
+            MOVE_LNG[i] = SystemConstants.DRONE_MOVE_DISTANCE * Math.cos(radians);
+            MOVE_LAT[i] = SystemConstants.DRONE_MOVE_DISTANCE * Math.sin(radians);
+        }
+    }
+
+    @Override
+    public double distanceTo(LngLat startPosition, LngLat endPosition) {
+        return Math.sqrt(distanceSquared(startPosition.lng(), startPosition.lat(), endPosition.lng(), endPosition.lat()));
+    }
+
+    @Override
+    public boolean isCloseTo(LngLat startPosition, LngLat otherPosition) {
+        return isCloseTo(startPosition.lng(), startPosition.lat(), otherPosition.lng(), otherPosition.lat());
+    }
+
+    @Override
+    public boolean isInCentralArea(LngLat point, NamedRegion centralArea) {
+        if (centralArea == null) {
+            throw new IllegalArgumentException("the named region is null");
+        }
+        if (!SystemConstants.CENTRAL_REGION_NAME.equals(centralArea.name())) {
+            throw new IllegalArgumentException("the named region: " + centralArea.name() + " is not valid - must be: " + SystemConstants.CENTRAL_REGION_NAME);
+        }
+        return isInRegion(point, centralArea);
+    }
+
+    @Override
+    public boolean isInRegion(LngLat position, NamedRegion region) {
+        LngLat[] vertices = region.vertices();
+        if (isAxisAlignedRectangle(vertices)) {
+            LngLat bottomLeft = vertices[CentralRegionVertexOrder.BOTTOM_LEFT];
+            LngLat topRight = vertices[CentralRegionVertexOrder.TOP_RIGHT];
+            return position.lng() >= bottomLeft.lng() && position.lng() <= topRight.lng()
+                    && position.lat() >= bottomLeft.lat() && position.lat() <= topRight.lat();
+        }
+        return PreparedRegion.of(region).contains(position);
+    }
+
+    @Override
+    public LngLat nextPosition(LngLat startPosition, double angle) {
+        int direction = compassDirection(angle);
+        if (direction >= 0) {
+            return new LngLat(startPosition.lng() + MOVE_LNG[direction], startPosition.lat() + MOVE_LAT[direction]);
+        }
+        double radians = Math.toRadians(angle);
+        return new LngLat(startPosition.lng() + SystemConstants.DRONE_MOVE_DISTANCE * Math.cos(radians),
+                startPosition.lat() + SystemConstants.DRONE_MOVE_DISTANCE * Math.sin(radians));
+    }
+
+    /**
+     * the squared euclidean distance between two positions
+     * @param lng1 is the longitude of the first position
+     * @param lat1 is the latitude of the first position
+     * @param lng2 is the longitude of the second position
+     * @param lat2 is the latitude of the second position
+     * @return (lng1 - lng2)^2 + (lat1 - lat2)^2
+     */
+    public static double distanceSquared(double lng1, double lat1, double lng2, double lat2) {
+        double dLng = lng1 - lng2;
+        double dLat = lat1 - lat2;
+        return dLng * dLng + dLat * dLat;
+    }
+
+    /**
+     * check if two positions are closer than {@link SystemConstants#DRONE_IS_CLOSE_DISTANCE}, without a square root
+     * @param lng1 is the longitude of the first position
+     * @param lat1 is the latitude of the first position
+     * @param lng2 is the longitude of the second position
+     * @param lat2 is the latitude of the second position
+     * @return if the positions are close
+     */
+    public static boolean isCloseTo(double lng1, double lat1, double lng2, double lat2) {
+        return distanceSquared(lng1, lat1, lng2, lat2) < CLOSE_DISTANCE_SQUARED;
+    }
+
+    /**
+     * the compass direction of an angle
+     * @param angle is in degrees, 0 = east, counterclockwise
+     * @return the direction index (angle / 22.5) or -1 if the angle is not one of the 16 compass directions in [0, 360)
+     */
+    public static int compassDirection(double angle) {
+        double steps = angle / COMPASS_STEP_DEGREES;
+        int direction = (int) steps;
+        return (direction == steps && direction >= 0 && direction < COMPASS_DIRECTIONS) ? direction : -1;
+    }
+
+    /**
+     * the change of longitude of one move
+     * @param direction is the compass direction index
+     * @return the longitude delta
+     */
+    public static double moveLng(int direction) {
+        return MOVE_LNG[direction];
+    }
+
+    /**
+     * the change of latitude of one move
+     * @param direction is the compass direction index
+     * @return the latitude delta
+     */
+    public static double moveLat(int direction) {
+        return MOVE_LAT[direction];
+    }
+
+    /**
+     * check if the vertices form an axis-aligned rectangle in {@link CentralRegionVertexOrder}.
+     * A fifth vertex closing the polygon is allowed.
+     * @param vertices are the corner points
+     * @return if the region is such a rectangle
+     */
+    public static boolean isAxisAlignedRectangle(LngLat[] vertices) {
+        if (vertices == null || vertices.length < 4 || vertices.length > 5) {
+            return false;
+        }
+        if (vertices.length == 5 && !vertices[4].equals(vertices[0])) {
+            return false;
+        }
+
+        LngLat topLeft = vertices[CentralRegionVertexOrder.TOP_LEFT];
+        LngLat bottomLeft = vertices[CentralRegionVertexOrder.BOTTOM_LEFT];
+        LngLat bottomRight = vertices[CentralRegionVertexOrder.BOTTOM_RIGHT];
+        LngLat topRight = vertices[CentralRegionVertexOrder.TOP_RIGHT];
+        return topLeft.lng() == bottomLeft.lng() && bottomRight.lng() == topRight.lng()
+                && bottomLeft.lat() == bottomRight.lat() && topLeft.lat() == topRight.lat()
+                && bottomLeft.lng() < bottomRight.lng() && bottomLeft.lat() < topLeft.lat();
+    }
+}
@@ -0,0 +1,164 @@
+package ilp.tutorials.pizzadronz.geometry;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static java.util.Objects.checkIndex;
+
+/**
+ * an immutable path stored as two packed arrays of longitudes and latitudes (16 bytes per position).
+ * It is also a read-only {@code List<LngLat>} view, whose get creates the LngLat on demand; code that walks many
+ * positions should use {@link #lng(int)} / {@link #lat(int)} or {@link #forEachPosition} instead.
+ * Sub lists share the arrays of the path they are taken from.
+ */
+@JsonSerialize(using = PackedPath.Serializer.class)
+public final class PackedPath extends AbstractList<LngLat> implements RandomAccess {
+
+    private static final PackedPath EMPTY = new PackedPath(new double[0], new double[0], 0, 0);
+
+    private final double[] lng;
+    private final double[] lat;
+    private final int offset;
+    private final int size;
+
+    private PackedPath(double[] lng, double[] lat, int offset, int size) {
+        this.lng = lng;
+        this.lat = lat;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * take over the given arrays; they must not be changed afterwards
+     * @param lng are the longitudes
+     * @param lat are the latitudes
+     * @return the path
+     */
+    public static PackedPath wrap(double[] lng, double[] lat) {
+        if (lng.length != lat.length) {
+            throw new IllegalArgumentException("Longitudes and latitudes must have the same length.");
+        }
+        return new PackedPath(lng, lat, 0, lng.length);
+    }
+
+    /**
+     * pack a list of positions
+     * @param positions are the positions
+     * @return the positions itself if it is a packed path already, otherwise a packed copy
+     */
+    public static PackedPath copyOf(List<LngLat> positions) {
+        if (positions instanceof PackedPath packed) {
+            return packed;
+        }
+        if (positions.isEmpty()) {
+            return EMPTY;
+        }
+
+        double[] lng = new double[positions.size()];
+        double[] lat = new double[positions.size()];
+        int i = 0;
+        for (LngLat position : positions) {
+            lng[i] = position.lng();
+            lat[i] = position.lat();
+            i++;
+        }
+        return new PackedPath(lng, lat, 0, lng.length);
+    }
+
+    /**
+     * the longitude of a position
+     * @param index is the position in the path
+     * @return the longitude
+     */
+    public double lng(int index) {
+        return lng[offset + checkIndex(index, size)];
+    }
+
+    /**
+     * the latitude of a position
+     * @param index is the position in the path
+     * @return the latitude
+     */
+    public double lat(int index) {
+        return lat[offset + checkIndex(index, size)];
+    }
+
+    /**
+     * call the consumer for every position in order, without creating LngLat objects
+     * @param consumer receives the longitude and latitude of each position
+     */
+    public void forEachPosition(PositionConsumer consumer) {
+        for (int i = offset, end = offset + size; i < end; i++) {
+            consumer.accept(lng[i], lat[i]);
+        }
+    }
+
+    @Override
+    public LngLat get(int index) {
+        int i = offset + checkIndex(index, size);
+        return new LngLat(lng[i], lat[i]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PackedPath subList(int fromIndex, int toIndex) {
+        subListRangeCheck(fromIndex, toIndex, size);
+        return new PackedPath(lng, lat, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * an estimate of the heap used by the path
+     * @return the size of the two arrays in bytes
+     */
+    public long estimatedBytes() {
+        return 2L * (16 + 8L * lng.length);
+    }
+
+    private static void subListRangeCheck(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+        }
+    }
+
+    /**
+     * receives the positions of a path
+     */
+    @FunctionalInterface
+    public interface PositionConsumer {
+        void accept(double lng, double lat);
+    }
+
+    /**
+     * writes a path as the usual array of {"lng": .., "lat": ..} objects straight from the packed arrays
+     */
+    public static final class Serializer extends StdSerializer<PackedPath> {
+
+        public Serializer() {
+            super(PackedPath.class);
+        }
+
+        @Override
+        public void serialize(PackedPath path, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartArray(path, path.size);
+            for (int i = path.offset, end = path.offset + path.size; i < end; i++) {
+                generator.writeStartObject();
+                generator.writeNumberField("lng", path.lng[i]);
+                generator.writeNumberField("lat", path.lat[i]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
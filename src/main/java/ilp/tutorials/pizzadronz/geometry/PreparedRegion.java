@@ -0,0 +1,240 @@
+package ilp.tutorials.pizzadronz.geometry;
+
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+import java.util.List;
+
+/**
+ * a polygon prepared for fast, allocation-free containment tests.
+ * The vertices are copied into primitive arrays, the bounding box is used to reject far away points
+ * and the inverse slope of every edge is precomputed so the ray casting loop needs no division.
+ * Points on the border count as inside (as promised by LngLatHandling.isInRegion).
+ */
+public final class PreparedRegion {
+
+    // tolerance for a point to count as lying on an edge
+    private static final double BORDER_TOLERANCE = 1e-12;
+
+    private final String name;
+    private final int vertexCount;
+
+    // edge i runs from (lng[i], lat[i]) to (lng[i + 1], lat[i + 1]); the arrays repeat the first vertex at the end
+    private final double[] lng;
+    private final double[] lat;
+    private final double[] inverseSlope;
+
+    private final double minLng;
+    private final double maxLng;
+    private final double minLat;
+    private final double maxLat;
+
+    private PreparedRegion(String name, double[] lng, double[] lat) {
+        this.name = name;
+        this.vertexCount = lng.length - 1;
+        this.lng = lng;
+        this.lat = lat;
+        this.inverseSlope = new double[vertexCount];
+
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertexCount; i++) {
+            double dLat = lat[i + 1] - lat[i];
+            inverseSlope[i] = (dLat == 0) ? 0 : (lng[i + 1] - lng[i]) / dLat;
+
+            minX = Math.min(minX, lng[i]);
+            maxX = Math.max(maxX, lng[i]);
+            minY = Math.min(minY, lat[i]);
+            maxY = Math.max(maxY, lat[i]);
+        }
+        this.minLng = minX;
+        this.maxLng = maxX;
+        this.minLat = minY;
+        this.maxLat = maxY;
+    }
+
+    /**
+     * prepare a named region
+     * @param region is the region
+     * @return the prepared region
+     */
+    public static PreparedRegion of(NamedRegion region) {
+        if (region == null || region.vertices() == null) {
+            throw new IllegalArgumentException("Region must have vertices.");
+        }
+        return of(region.name(), List.of(region.vertices()));
+    }
+
+    /**
+     * prepare a polygon given by its vertices. A closing vertex equal to the first one is optional.
+     * @param name is the name of the region
+     * @param vertices are the corner points
+     * @return the prepared region
+     */
+    public static PreparedRegion of(String name, List<LngLat> vertices) {
+        int n = vertices.size();
+        if (n > 1 && vertices.get(0).equals(vertices.get(n - 1))) {
+            n--;
+        }
+        if (n < 3) {
+            throw new IllegalArgumentException("Region must have at least 3 vertices.");
+        }
+
+        double[] lng = new double[n + 1];
+        double[] lat = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            lng[i] = vertices.get(i).lng();
+            lat[i] = vertices.get(i).lat();
+        }
+        lng[n] = lng[0];
+        lat[n] = lat[0];
+        return new PreparedRegion(name, lng, lat);
+    }
+
+    /**
+     * check if a position is in the region (including the border)
+     * @param position to check
+     * @return if the position is inside or on the border
+     */
+    public boolean contains(LngLat position) {
+        return contains(position.lng(), position.lat());
+    }
+
+    /**
+     * check if a position is in the region (including the border)
+     * @param x is the longitude
+     * @param y is the latitude
+     * @return if the position is inside or on the border
+     */
+    public boolean contains(double x, double y) {
+        if (x < minLng || x > maxLng || y < minLat || y > maxLat) {
+            return false;
+        }
+
+        boolean inside = false;
+        for (int i = 0; i < vertexCount; i++) {
+            double yi = lat[i], yj = lat[i + 1];
+            if ((yi > y) != (yj > y)) {
+                double crossing = lng[i] + (y - yi) * inverseSlope[i];
+                if (Math.abs(x - crossing) <= BORDER_TOLERANCE) {
+                    return true;
+                }
+                if (x < crossing) {
+                    inside = !inside;
+                }
+            } else if (y == yi && (y == yj ? isBetween(x, lng[i], lng[i + 1]) : x == lng[i])) {
+                // on a horizontal edge or on a vertex the ray test does not see
+                return true;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * check if the segment between two positions touches the region, i.e. an end point is inside or on the border
+     * or the segment crosses or touches an edge
+     * @param x1 is the longitude of the first position
+     * @param y1 is the latitude of the first position
+     * @param x2 is the longitude of the second position
+     * @param y2 is the latitude of the second position
+     * @return if the segment touches the region
+     */
+    public boolean intersectsSegment(double x1, double y1, double x2, double y2) {
+        if (!boundsOverlap(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2))) {
+            return false;
+        }
+        if (contains(x1, y1) || contains(x2, y2)) {
+            return true;
+        }
+
+        // both end points are outside, so the segment can only touch the region by meeting an edge
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        for (int i = 0; i < vertexCount; i++) {
+            double ax = lng[i], ay = lat[i];
+            double bx = lng[i + 1], by = lat[i + 1];
+            if (Math.max(ax, bx) < Math.min(x1, x2) || Math.min(ax, bx) > Math.max(x1, x2)
+                    || Math.max(ay, by) < Math.min(y1, y2) || Math.min(ay, by) > Math.max(y1, y2)) {
+                continue;
+            }
+
+            double sideA = dx * (ay - y1) - dy * (ax - x1);
+            double sideB = dx * (by - y1) - dy * (bx - x1);
+            if ((sideA > 0 && sideB > 0) || (sideA < 0 && sideB < 0)) {
+                continue;
+            }
+            double ex = bx - ax, ey = by - ay;
+            double side1 = ex * (y1 - ay) - ey * (x1 - ax);
+            double side2 = ex * (y2 - ay) - ey * (x2 - ax);
+            if ((side1 > 0 && side2 > 0) || (side1 < 0 && side2 < 0)) {
+                continue;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * check if the bounding box of the region overlaps the given box
+     * @param boxMinLng is the west edge of the box
+     * @param boxMinLat is the south edge of the box
+     * @param boxMaxLng is the east edge of the box
+     * @param boxMaxLat is the north edge of the box
+     * @return if the boxes overlap (including touching)
+     */
+    public boolean boundsOverlap(double boxMinLng, double boxMinLat, double boxMaxLng, double boxMaxLat) {
+        return boxMinLng <= maxLng && boxMaxLng >= minLng && boxMinLat <= maxLat && boxMaxLat >= minLat;
+    }
+
+    private static boolean isBetween(double value, double a, double b) {
+        return value >= Math.min(a, b) && value <= Math.max(a, b);
+    }
+
+    /**
+     * the name of the region
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * the number of distinct corner points
+     * @return the vertex count
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * the west edge of the bounding box
+     * @return the smallest longitude
+     */
+    public double minLng() {
+        return minLng;
+    }
+
+    /**
+     * the east edge of the bounding box
+     * @return the largest longitude
+     */
+    public double maxLng() {
+        return maxLng;
+    }
+
+    /**
+     * the south edge of the bounding box
+     * @return the smallest latitude
+     */
+    public double minLat() {
+        return minLat;
+    }
+
+    /**
+     * the north edge of the bounding box
+     * @return the largest latitude
+     */
+    public double maxLat() {
+        return maxLat;
+    }
+}
@@ -0,0 +1,194 @@
+package ilp.tutorials.pizzadronz.geometry;
+
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * uniform grid over the bounding boxes of a set of prepared regions.
+ * Every cell lists the regions whose bounding box overlaps it, so a point query only tests the regions of one cell
+ * and a query for a short segment only those of the few cells covering the segment's bounding box.
+ * The cell lists are stored in two flat int arrays (compressed rows).
+ */
+public final class ZoneIndex {
+
+    // aim for a handful of cells per region, but never cells smaller than a drone move
+    private static final int CELLS_PER_REGION = 4;
+    private static final int MAX_CELLS = 1 << 20;
+
+    private final PreparedRegion[] regions;
+
+    private final double originLng;
+    private final double originLat;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    // the regions of cell c are cellRegions[cellStart[c]] .. cellRegions[cellStart[c + 1] - 1]
+    private final int[] cellStart;
+    private final int[] cellRegions;
+
+    private ZoneIndex(PreparedRegion[] regions, double originLng, double originLat, double cellSize, int columns, int rows) {
+        this.regions = regions;
+        this.originLng = originLng;
+        this.originLat = originLat;
+        this.cellSize = cellSize;
+        this.columns = columns;
+        this.rows = rows;
+
+        int cells = columns * rows;
+        int[] counts = new int[cells + 1];
+        for (PreparedRegion region : regions) {
+            forEachCell(region.minLng(), region.minLat(), region.maxLng(), region.maxLat(), cell -> counts[cell + 1]++);
+        }
+        for (int c = 0; c < cells; c++) {
+            counts[c + 1] += counts[c];
+        }
+        this.cellStart = counts.clone();
+
+        int[] fill = counts;
+        this.cellRegions = new int[counts[cells]];
+        for (int r = 0; r < regions.length; r++) {
+            int regionIndex = r;
+            PreparedRegion region = regions[r];
+            forEachCell(region.minLng(), region.minLat(), region.maxLng(), region.maxLat(), cell -> cellRegions[fill[cell]++] = regionIndex);
+        }
+    }
+
+    /**
+     * build the index
+     * @param regions are the regions to index
+     * @return the index
+     */
+    public static ZoneIndex of(List<PreparedRegion> regions) {
+        PreparedRegion[] array = regions.toArray(new PreparedRegion[0]);
+        if (array.length == 0) {
+            return new ZoneIndex(array, 0, 0, 1, 1, 1);
+        }
+
+        double minLng = Double.POSITIVE_INFINITY, maxLng = Double.NEGATIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        for (PreparedRegion region : array) {
+            minLng = Math.min(minLng, region.minLng());
+            maxLng = Math.max(maxLng, region.maxLng());
+            minLat = Math.min(minLat, region.minLat());
+            maxLat = Math.max(maxLat, region.maxLat());
+        }
+
+        double width = maxLng - minLng;
+        double height = maxLat - minLat;
+        int targetCells = Math.min(MAX_CELLS, array.length * CELLS_PER_REGION);
+        double cellSize = Math.max(Math.sqrt(width * height / targetCells), SystemConstants.DRONE_MOVE_DISTANCE);
+        while ((width / cellSize + 1) * (height / cellSize + 1) > MAX_CELLS) {
+            cellSize *= 2;
+        }
+
+        int columns = (int) Math.floor(width / cellSize) + 1;
+        int rows = (int) Math.floor(height / cellSize) + 1;
+        return new ZoneIndex(array, minLng, minLat, cellSize, columns, rows);
+    }
+
+    /**
+     * check if a position is in any of the indexed regions (including the border)
+     * @param lng is the longitude
+     * @param lat is the latitude
+     * @return if the position is in a region
+     */
+    public boolean contains(double lng, double lat) {
+        int column = column(lng);
+        int row = row(lat);
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return false;
+        }
+
+        int cell = row * columns + column;
+        for (int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+            if (regions[cellRegions[i]].contains(lng, lat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * check if the segment between two positions touches any of the indexed regions
+     * @param lng1 is the longitude of the first position
+     * @param lat1 is the latitude of the first position
+     * @param lng2 is the longitude of the second position
+     * @param lat2 is the latitude of the second position
+     * @return if the segment touches a region
+     */
+    public boolean intersectsSegment(double lng1, double lat1, double lng2, double lat2) {
+        int firstColumn = Math.max(0, column(Math.min(lng1, lng2)));
+        int lastColumn = Math.min(columns - 1, column(Math.max(lng1, lng2)));
+        int firstRow = Math.max(0, row(Math.min(lat1, lat2)));
+        int lastRow = Math.min(rows - 1, row(Math.max(lat1, lat2)));
+
+        if (firstColumn == lastColumn && firstRow == lastRow) {
+            return anyIntersects(firstRow * columns + firstColumn, lng1, lat1, lng2, lat2);
+        }
+
+        // a region overlapping several of the covered cells is tested only once: in a bit mask for up to 64 regions,
+        // otherwise in a bitset of the query
+        long testedMask = 0;
+        long[] tested = (regions.length > Long.SIZE) ? new long[(regions.length + Long.SIZE - 1) / Long.SIZE] : null;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+                    int regionIndex = cellRegions[i];
+                    long bit = 1L << regionIndex;
+                    if (tested == null) {
+                        if ((testedMask & bit) != 0) {
+                            continue;
+                        }
+                        testedMask |= bit;
+                    } else {
+                        int word = regionIndex >>> 6;
+                        if ((tested[word] & bit) != 0) {
+                            continue;
+                        }
+                        tested[word] |= bit;
+                    }
+                    if (regions[regionIndex].intersectsSegment(lng1, lat1, lng2, lat2)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // a segment within a single cell, where every region is listed at most once
+    private boolean anyIntersects(int cell, double lng1, double lat1, double lng2, double lat2) {
+        for (int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+            if (regions[cellRegions[i]].intersectsSegment(lng1, lat1, lng2, lat2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // calls the visitor for all cells overlapping the box
+    private void forEachCell(double minLng, double minLat, double maxLng, double maxLat, IntConsumer visitor) {
+        int firstColumn = Math.max(0, column(minLng));
+        int lastColumn = Math.min(columns - 1, column(maxLng));
+        int firstRow = Math.max(0, row(minLat));
+        int lastRow = Math.min(rows - 1, row(maxLat));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                visitor.accept(row * columns + column);
+            }
+        }
+    }
+
+    private int column(double lng) {
+        return (int) Math.floor((lng - originLng) / cellSize);
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor((lat - originLat) / cellSize);
+    }
+}
@@ -0,0 +1,355 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.util.Arrays;
+
+/**
+ * the number of moves still needed to reach one destination, precomputed for a whole area.
+ * The values live on a grid of half a move, filled by one backward Dijkstra search from the destination over the
+ * 16 neighbours of every grid point (the adjacent points and the knight jumps), where a step is only allowed if
+ * the drone could fly it: it must not touch a no-fly zone and must not leave the central area once inside.
+ * Between grid points the field is interpolated bilinearly.
+ * <p>
+ * A path from any start in the area is then found by descending the field with real drone moves, taking the legal
+ * move to the lowest value each time, in time linear in the length of the path. The grid only approximates the
+ * move lattice, so the descent can get stuck (e.g. in a narrow gap) or take a detour. A path is therefore only
+ * returned if it is provably a shortest one - as long as the {@link RoutePlanner#minMoves lower bound} of the
+ * planner, which holds on open ground and along most routes which merely pass the zones. Otherwise
+ * {@link #pathFrom} returns null and the caller falls back to the {@link RoutePlanner}.
+ * The field is immutable and can be shared between threads.
+ */
+public final class CostToGoField {
+
+    /**
+     * the distance between neighbouring grid points
+     */
+    public static final double GRID_SPACING = SystemConstants.DRONE_MOVE_DISTANCE / 2;
+
+    // grid points kept around the given bounds, so starts a little outside of them are covered as well
+    private static final int MARGIN = 80;
+    private static final int MAX_POINTS = 1 << 22;
+
+    // the 16 grid neighbours in compass order, and the length of each step in moves
+    private static final int[] STEP_COLUMN = { 1, 2, 1, 1, 0, -1, -1, -2, -1, -2, -1, -1, 0, 1, 1, 2 };
+    private static final int[] STEP_ROW = { 0, 1, 1, 2, 1, 2, 1, 1, 0, -1, -1, -2, -1, -2, -1, -1 };
+    private static final float[] STEP_MOVES = new float[STEP_COLUMN.length];
+
+    static {
+        for (int i = 0; i < STEP_MOVES.length; i++) {
+            STEP_MOVES[i] = (float) (Math.hypot(STEP_COLUMN[i], STEP_ROW[i]) * GRID_SPACING / SystemConstants.DRONE_MOVE_DISTANCE);
+        }
+    }
+
+    private final Airspace airspace;
+    private final LngLat destination;
+    private final double originLng;
+    private final double originLat;
+    private final int columns;
+    private final int rows;
+    // moves to the destination per grid point (row major), infinite where the destination cannot be reached
+    private final float[] moves;
+    private final int reachable;
+    private final long buildNanos;
+
+    private CostToGoField(Airspace airspace, LngLat destination, double originLng, double originLat, int columns, int rows) {
+        long start = System.nanoTime();
+        this.airspace = airspace;
+        this.destination = destination;
+        this.originLng = originLng;
+        this.originLat = originLat;
+        this.columns = columns;
+        this.rows = rows;
+        this.moves = new float[columns * rows];
+        this.reachable = fill();
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * build the field of a destination
+     * @param airspace holds the no-fly zones and the central area
+     * @param destination is where all paths end
+     * @param minLng is the western edge of the area which needs to be covered
+     * @param minLat is the southern edge of the area
+     * @param maxLng is the eastern edge of the area
+     * @param maxLat is the northern edge of the area
+     * @return the field, covering the area, the destination and a margin around them
+     */
+    public static CostToGoField build(Airspace airspace, LngLat destination, double minLng, double minLat, double maxLng, double maxLat) {
+        double westLng = Math.min(minLng, destination.lng()) - MARGIN * GRID_SPACING;
+        double southLat = Math.min(minLat, destination.lat()) - MARGIN * GRID_SPACING;
+        double eastLng = Math.max(maxLng, destination.lng()) + MARGIN * GRID_SPACING;
+        double northLat = Math.max(maxLat, destination.lat()) + MARGIN * GRID_SPACING;
+
+        long columns = (long) Math.ceil((eastLng - westLng) / GRID_SPACING) + 1;
+        long rows = (long) Math.ceil((northLat - southLat) / GRID_SPACING) + 1;
+        if (!(columns * rows <= MAX_POINTS)) {
+            throw new IllegalArgumentException("Area is too large for a cost-to-go field: " + columns + " x " + rows + " grid points.");
+        }
+        return new CostToGoField(airspace, destination, westLng, southLat, (int) columns, (int) rows);
+    }
+
+    /**
+     * the shortest path from a start to the destination, following the field downhill
+     * @param start is where the drone starts
+     * @return the positions of the path, ending close to the destination, or null if the field gives no path which
+     * is known to be a shortest one
+     */
+    public PackedPath pathFrom(LngLat start) {
+        double lng = start.lng();
+        double lat = start.lat();
+        double value = movesFrom(lng, lat);
+        if (value == Float.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        // no legal path is shorter, so a descent taking no more moves is a shortest path
+        int shortest = RoutePlanner.minMoves(lng, lat, destination);
+        double[] pathLng = new double[shortest + 1];
+        double[] pathLat = new double[pathLng.length];
+        pathLng[0] = lng;
+        pathLat[0] = lat;
+        int count = 1;
+
+        while (!LngLatHandler.isCloseTo(lng, lat, destination.lng(), destination.lat())) {
+            if (count > shortest || count > SystemConstants.DRONE_MAX_MOVES) {
+                return null;
+            }
+
+            boolean inCentralArea = airspace.isInCentralArea(lng, lat);
+            int best = -1;
+            double bestValue = value;
+            for (int direction = 0; direction < LngLatHandler.COMPASS_DIRECTIONS; direction++) {
+                double nextLng = lng + LngLatHandler.moveLng(direction);
+                double nextLat = lat + LngLatHandler.moveLat(direction);
+                // arriving beats any value of the field
+                double nextValue = LngLatHandler.isCloseTo(nextLng, nextLat, destination.lng(), destination.lat())
+                        ? -1 : movesFrom(nextLng, nextLat);
+                if (nextValue >= bestValue) {
+                    continue;
+                }
+                if (inCentralArea && !airspace.isInCentralArea(nextLng, nextLat)) {
+                    continue;
+                }
+                if (airspace.moveCrossesNoFlyZone(lng, lat, nextLng, nextLat)) {
+                    continue;
+                }
+                best = direction;
+                bestValue = nextValue;
+            }
+            // every move has to go downhill, which also rules out loops
+            if (best < 0) {
+                return null;
+            }
+
+            lng += LngLatHandler.moveLng(best);
+            lat += LngLatHandler.moveLat(best);
+            value = bestValue;
+            pathLng[count] = lng;
+            pathLat[count] = lat;
+            count++;
+        }
+        return PackedPath.wrap(Arrays.copyOf(pathLng, count), Arrays.copyOf(pathLat, count));
+    }
+
+    /**
+     * the interpolated number of moves from a position to the destination
+     * @param lng is the longitude
+     * @param lat is the latitude
+     * @return the moves, infinite outside the field or where the destination cannot be reached
+     */
+    public double movesFrom(double lng, double lat) {
+        double x = (lng - originLng) / GRID_SPACING;
+        double y = (lat - originLat) / GRID_SPACING;
+        int column = (int) Math.floor(x);
+        int row = (int) Math.floor(y);
+        if (column < 0 || row < 0 || column >= columns - 1 || row >= rows - 1) {
+            return Float.POSITIVE_INFINITY;
+        }
+
+        double fx = x - column;
+        double fy = y - row;
+        int point = row * columns + column;
+        // corners without a value (in a no-fly zone or cut off) are left out and the others reweighted
+        float southWest = moves[point];
+        float southEast = moves[point + 1];
+        float northWest = moves[point + columns];
+        float northEast = moves[point + columns + 1];
+        double sum = 0;
+        double weights = 0;
+        double weight = (1 - fx) * (1 - fy);
+        if (southWest != Float.POSITIVE_INFINITY && weight > 0) {
+            sum += weight * southWest;
+            weights += weight;
+        }
+        weight = fx * (1 - fy);
+        if (southEast != Float.POSITIVE_INFINITY && weight > 0) {
+            sum += weight * southEast;
+            weights += weight;
+        }
+        weight = (1 - fx) * fy;
+        if (northWest != Float.POSITIVE_INFINITY && weight > 0) {
+            sum += weight * northWest;
+            weights += weight;
+        }
+        weight = fx * fy;
+        if (northEast != Float.POSITIVE_INFINITY && weight > 0) {
+            sum += weight * northEast;
+            weights += weight;
+        }
+        return weights == 0 ? Float.POSITIVE_INFINITY : sum / weights;
+    }
+
+    /**
+     * the number of grid points along the longitude
+     * @return the columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * the number of grid points along the latitude
+     * @return the rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * the number of grid points from which the destination can be reached
+     * @return the reachable points
+     */
+    public int reachable() {
+        return reachable;
+    }
+
+    /**
+     * how long building the field took
+     * @return the build time in nanoseconds
+     */
+    public long buildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * the heap used by the field
+     * @return the size of the value array in bytes
+     */
+    public long estimatedBytes() {
+        return 16 + 4L * moves.length;
+    }
+
+    // Dijkstra from the destination backwards along the grid steps, returns the number of points reached
+    private int fill() {
+        int points = columns * rows;
+        Arrays.fill(moves, Float.POSITIVE_INFINITY);
+
+        boolean[] blocked = new boolean[points];
+        boolean[] central = new boolean[points];
+        for (int point = 0; point < points; point++) {
+            double lng = lng(point);
+            double lat = lat(point);
+            blocked[point] = airspace.isInNoFlyZone(lng, lat);
+            central[point] = airspace.isInCentralArea(lng, lat);
+        }
+
+        // heap entries pack the (non-negative, so order preserving) float bits of the value above the point index
+        long[] heap = new long[1024];
+        int heapSize = 0;
+        for (int point = 0; point < points; point++) {
+            if (!blocked[point] && LngLatHandler.isCloseTo(lng(point), lat(point), destination.lng(), destination.lat())) {
+                moves[point] = 0;
+                heap = push(heap, heapSize++, point);
+            }
+        }
+
+        int reached = 0;
+        while (heapSize > 0) {
+            long entry = heap[0];
+            heapSize = pop(heap, heapSize);
+            int to = (int) entry;
+            float value = Float.intBitsToFloat((int) (entry >>> 32));
+            if (value > moves[to]) {
+                continue;
+            }
+            reached++;
+
+            int toColumn = to % columns;
+            int toRow = to / columns;
+            for (int i = 0; i < STEP_COLUMN.length; i++) {
+                // the drone flies from the neighbour to this point
+                int fromColumn = toColumn + STEP_COLUMN[i];
+                int fromRow = toRow + STEP_ROW[i];
+                if (fromColumn < 0 || fromRow < 0 || fromColumn >= columns || fromRow >= rows) {
+                    continue;
+                }
+                int from = fromRow * columns + fromColumn;
+                float candidate = value + STEP_MOVES[i];
+                if (blocked[from] || candidate >= moves[from]) {
+                    continue;
+                }
+                if (central[from] && !central[to]) {
+                    continue;
+                }
+                if (airspace.moveCrossesNoFlyZone(lng(from), lat(from), lng(to), lat(to))) {
+                    continue;
+                }
+                moves[from] = candidate;
+                heap = push(heap, heapSize++, ((long) Float.floatToIntBits(candidate) << 32) | from);
+            }
+        }
+        return reached;
+    }
+
+    private double lng(int point) {
+        return originLng + (point % columns) * GRID_SPACING;
+    }
+
+    private double lat(int point) {
+        return originLat + (point / columns) * GRID_SPACING;
+    }
+
+    private static long[] push(long[] heap, int size, long entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= entry) {
+                break;
+            }
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = entry;
+        return heap;
+    }
+
+    // removes the smallest entry, returns the new size
+    private static int pop(long[] heap, int size) {
+        long last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return size;
+    }
+}
@@ -0,0 +1,190 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import ilp.tutorials.pizzadronz.geometry.PreparedRegion;
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * the {@link CostToGoField} towards Appleton Tower for the current no-fly zone geometry.
+ * A field is built once per geometry version, on the refresh thread by every refresh that changes the geometry, and
+ * covers the restaurants, the no-fly zones and the central area of the snapshot it was built from. Restaurants
+ * added later without a geometry change are still covered if they lie within the margin of the field, otherwise
+ * their routes fall back to the planner. Requests never build or wait for a field: until the field of their
+ * snapshot's geometry is published, and for snapshots older than the current field, paths are planned instead.
+ * Build time, size and how many paths came from the field are reported.
+ */
+@Component
+public class CostToGoFields implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CostToGoFields.class);
+
+    private static final LngLat APPLETON = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+
+    private final boolean enabled;
+
+    // null until the first field is built; field is null if the geometry is too large for one
+    private volatile Built built;
+
+    // the geometry of the newest snapshot published, a build for an older one is not worth finishing
+    private volatile long geometryVersion;
+
+    // only taken by refreshes, so overlapping ones build one after the other
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private final LongAdder fieldPaths = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    @Autowired
+    public CostToGoFields(ReferenceDataService referenceDataService,
+                          @Value("${pizzadronz.planner.cost-to-go-field:true}") boolean enabled) {
+        this(enabled);
+        referenceDataService.addRefreshListener(this::onRefresh);
+    }
+
+    public CostToGoFields(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * the path from a start to Appleton Tower along the field of a snapshot
+     * @param start is where the drone starts
+     * @param referenceData is the snapshot to plan against
+     * @return the path, or null if fields are disabled, the field of the snapshot is not built yet or outdated, or the
+     * field gives no path from this start
+     */
+    public PackedPath pathToAppleton(LngLat start, ReferenceData referenceData) {
+        if (!enabled) {
+            return null;
+        }
+        Built current = built;
+        CostToGoField field = (current != null && current.geometryVersion() == referenceData.geometryVersion())
+                ? current.field() : null;
+        PackedPath path = (field == null) ? null : field.pathFrom(start);
+        (path == null ? fallbacks : fieldPaths).increment();
+        return path;
+    }
+
+    /**
+     * build the field of a new snapshot and publish it, unless the geometry is unchanged
+     * @param referenceData is the new snapshot
+     */
+    public void onRefresh(ReferenceData referenceData) {
+        long version = referenceData.geometryVersion();
+        geometryVersion = version;
+        if (!enabled) {
+            return;
+        }
+        buildLock.lock();
+        try {
+            Built current = built;
+            if ((current != null && current.geometryVersion() == version) || geometryVersion != version) {
+                return;
+            }
+            built = new Built(version, build(referenceData));
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * the statistics of the current field
+     * @return its size, build time and how many paths it answered
+     */
+    public Stats stats() {
+        Built current = built;
+        CostToGoField field = (current == null) ? null : current.field();
+        return new Stats(field != null,
+                field == null ? 0 : field.columns(),
+                field == null ? 0 : field.rows(),
+                field == null ? 0 : field.reachable(),
+                field == null ? 0 : field.buildNanos() / 1_000_000,
+                field == null ? 0 : field.estimatedBytes(),
+                fieldPaths.sum(), fallbacks.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pizzadronz.planner.field.paths", fieldPaths, LongAdder::sum)
+                .description("delivery paths answered by the cost-to-go field")
+                .tag("outcome", "field")
+                .register(registry);
+        FunctionCounter.builder("pizzadronz.planner.field.paths", fallbacks, LongAdder::sum)
+                .description("delivery paths which fell back to the route planner")
+                .tag("outcome", "fallback")
+                .register(registry);
+        Gauge.builder("pizzadronz.planner.field.build", this, fields -> fields.stats().buildMillis() / 1000.0)
+                .description("time taken to build the current cost-to-go field")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("pizzadronz.planner.field.estimated", this, fields -> fields.stats().estimatedBytes())
+                .description("heap used by the current cost-to-go field")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static CostToGoField build(ReferenceData referenceData) {
+        Airspace airspace = referenceData.airspace();
+        PreparedRegion centralArea = airspace.centralArea();
+        double minLng = centralArea.minLng();
+        double minLat = centralArea.minLat();
+        double maxLng = centralArea.maxLng();
+        double maxLat = centralArea.maxLat();
+        for (PreparedRegion zone : airspace.noFlyZones()) {
+            minLng = Math.min(minLng, zone.minLng());
+            minLat = Math.min(minLat, zone.minLat());
+            maxLng = Math.max(maxLng, zone.maxLng());
+            maxLat = Math.max(maxLat, zone.maxLat());
+        }
+        for (Restaurant restaurant : referenceData.restaurants()) {
+            minLng = Math.min(minLng, restaurant.location().lng());
+            minLat = Math.min(minLat, restaurant.location().lat());
+            maxLng = Math.max(maxLng, restaurant.location().lng());
+            maxLat = Math.max(maxLat, restaurant.location().lat());
+        }
+
+        try {
+            CostToGoField field = CostToGoField.build(airspace, APPLETON, minLng, minLat, maxLng, maxLat);
+            logger.info("Built cost-to-go field of {} x {} points ({} reachable, {} KiB) in {} ms",
+                    field.columns(), field.rows(), field.reachable(), field.estimatedBytes() / 1024, field.buildNanos() / 1_000_000);
+            return field;
+        } catch (IllegalArgumentException e) {
+            logger.warn("No cost-to-go field, all routes are planned: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record Built(long geometryVersion, CostToGoField field) {
+    }
+
+    /**
+     * cost-to-go field statistics
+     * @param built is whether a field is in use
+     * @param columns is the number of grid points along the longitude
+     * @param rows is the number of grid points along the latitude
+     * @param reachable is the number of grid points from which Appleton Tower can be reached
+     * @param buildMillis is the time taken to build the field
+     * @param estimatedBytes is the heap used by the field
+     * @param fieldPaths is the number of paths answered by the field
+     * @param fallbacks is the number of paths which had to be planned instead
+     */
+    public record Stats(boolean built, int columns, int rows, int reachable, long buildMillis, long estimatedBytes,
+                        long fieldPaths, long fallbacks) {
+    }
+}
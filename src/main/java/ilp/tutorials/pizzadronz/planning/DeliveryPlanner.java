@@ -0,0 +1,223 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import ilp.tutorials.pizzadronz.services.MenuIndex;
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * plans delivery paths from the restaurant of an order to Appleton Tower, for single orders and for batches, and
+ * the round trips around them.
+ * A batch is grouped by restaurant so every distinct route is planned (or taken from the route cache) only once.
+ * Routes are read off the cost-to-go field of the current geometry when the field can prove them shortest and searched
+ * by the route planner otherwise, so both give routes of the same length.
+ * Once bound to a meter registry the time to get each route and its number of moves are recorded.
+ */
+@Component
+public class DeliveryPlanner implements MeterBinder {
+
+    private static final LngLat APPLETON = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+
+    private final RoutePlanner routePlanner;
+    private final RouteCache routeCache;
+    private final CostToGoFields costToGoFields;
+
+    private volatile Timer routeTimer;
+    private volatile DistributionSummary pathMoves;
+
+    public DeliveryPlanner(RoutePlanner routePlanner, RouteCache routeCache, CostToGoFields costToGoFields) {
+        this.routePlanner = routePlanner;
+        this.routeCache = routeCache;
+        this.costToGoFields = costToGoFields;
+        // no-op until bound
+        MeterRegistry unbound = new CompositeMeterRegistry();
+        this.routeTimer = routeTimer(unbound);
+        this.pathMoves = pathMoves(unbound);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        routeTimer = routeTimer(registry);
+        pathMoves = pathMoves(registry);
+        Gauge.builder("pizzadronz.path.moves.limit", () -> SystemConstants.DRONE_MAX_MOVES)
+                .description("the most moves a drone may make")
+                .register(registry);
+    }
+
+    /**
+     * the delivery path for an order
+     * @param order is a valid order
+     * @param referenceData is the snapshot to plan against
+     * @return the path from the restaurant to Appleton Tower
+     */
+    public PackedPath plan(Order order, ReferenceData referenceData) {
+        return route(restaurantOf(order, referenceData.menuIndex()).location(), referenceData);
+    }
+
+    /**
+     * the whole flight for an order, derived from its delivery path
+     * @param order is a valid order
+     * @param referenceData is the snapshot to plan against
+     * @return the round trip from Appleton Tower to the restaurant and back
+     */
+    public RoundTrip planRoundTrip(Order order, ReferenceData referenceData) {
+        return RoundTrip.of(plan(order, referenceData));
+    }
+
+    /**
+     * validate and plan a batch of orders against one snapshot
+     * @param orders are the orders
+     * @param referenceData is the snapshot to plan against
+     * @param validation validates a single order
+     * @return the distinct routes and, per order, which route it uses
+     */
+    public BatchPlan planBatch(List<Order> orders, ReferenceData referenceData, Function<Order, OrderValidationCode> validation) {
+        long startNanos = System.nanoTime();
+
+        OrderValidationCode[] codes = new OrderValidationCode[orders.size()];
+        int[] routeOfOrder = new int[orders.size()];
+        Map<Restaurant, Integer> routeOfRestaurant = new IdentityHashMap<>();
+        List<Restaurant> restaurants = new ArrayList<>();
+
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            codes[i] = validation.apply(order);
+            routeOfOrder[i] = -1;
+            if (codes[i] == OrderValidationCode.NO_ERROR) {
+                Restaurant restaurant = restaurantOf(order, referenceData.menuIndex());
+                routeOfOrder[i] = routeOfRestaurant.computeIfAbsent(restaurant, r -> {
+                    restaurants.add(r);
+                    return restaurants.size() - 1;
+                });
+            }
+        }
+
+        // the distinct routes are independent of each other
+        List<PackedPath> routes = restaurants.parallelStream()
+                .map(restaurant -> tryRoute(restaurant.location(), referenceData))
+                .toList();
+
+        List<OrderRoute> results = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            int route = routeOfOrder[i];
+            if (route >= 0 && routes.get(route) == null) {
+                route = -1;
+            }
+            Order order = orders.get(i);
+            results.add(new OrderRoute(order == null ? null : order.getOrderNo(), codes[i], route));
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        double ordersPerSecond = orders.size() * 1e9 / elapsedNanos;
+        return new BatchPlan(routes, results, elapsedNanos / 1_000_000, ordersPerSecond);
+    }
+
+    /**
+     * validate and plan a day of orders and schedule them as shared trips on a fleet of drones
+     * @param orders are the orders
+     * @param referenceData is the snapshot to plan against
+     * @param validation validates a single order
+     * @param drones is the size of the fleet
+     * @return the trips and the schedule of every drone
+     * @throws IllegalArgumentException if the fleet is empty or too large
+     */
+    public FleetScheduler.FleetPlan planFleet(List<Order> orders, ReferenceData referenceData,
+                                              Function<Order, OrderValidationCode> validation, int drones) {
+        FleetScheduler.checkFleetSize(drones);
+        return FleetScheduler.schedule(orders, planBatch(orders, referenceData, validation), drones);
+    }
+
+    private PackedPath route(LngLat start, ReferenceData referenceData) {
+        RouteCache.RouteKey key = new RouteCache.RouteKey(start, APPLETON, referenceData.geometryVersion());
+        long startNanos = System.nanoTime();
+        PackedPath path = routeCache.get(key, () -> {
+            PackedPath fieldPath = costToGoFields.pathToAppleton(start, referenceData);
+            return (fieldPath != null) ? fieldPath : routePlanner.plan(start, APPLETON, referenceData.airspace());
+        });
+        routeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        pathMoves.record(Math.max(0, path.size() - 1));
+        return path;
+    }
+
+    /**
+     * the statistics of the cost-to-go field in use
+     * @return the field statistics
+     */
+    public CostToGoFields.Stats costToGoFieldStats() {
+        return costToGoFields.stats();
+    }
+
+    private static Timer routeTimer(MeterRegistry registry) {
+        return Timer.builder("pizzadronz.path.planning")
+                .description("time to get a delivery path, from the route cache or the planner")
+                .register(registry);
+    }
+
+    private static DistributionSummary pathMoves(MeterRegistry registry) {
+        return DistributionSummary.builder("pizzadronz.path.moves")
+                .description("moves of the delivered paths")
+                .maximumExpectedValue((double) SystemConstants.DRONE_MAX_MOVES)
+                .register(registry);
+    }
+
+    // a failed route only affects the orders of its restaurant
+    private PackedPath tryRoute(LngLat start, ReferenceData referenceData) {
+        try {
+            return route(start, referenceData);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // retrieve the restaurant for the given order
+    private static Restaurant restaurantOf(Order order, MenuIndex menuIndex) {
+        if (order.getPizzasInOrder() == null || order.getPizzasInOrder().length == 0) {
+            throw new IllegalArgumentException("Order contains no pizzas.");
+        }
+
+        Pizza firstPizza = order.getPizzasInOrder()[0];
+        MenuIndex.MenuEntry entry = (firstPizza == null) ? null : menuIndex.lookup(firstPizza.name());
+        if (entry == null) {
+            throw new IllegalArgumentException("Restaurant not found for pizza: " + (firstPizza == null ? null : firstPizza.name()));
+        }
+        return entry.restaurant();
+    }
+
+    /**
+     * the planned batch
+     * @param routes are the distinct routes, null where no path could be found
+     * @param orders are the per-order results in input order
+     * @param elapsedMillis is the time taken to validate and plan the batch
+     * @param ordersPerSecond is the throughput of the batch
+     */
+    public record BatchPlan(List<PackedPath> routes, List<OrderRoute> orders, long elapsedMillis, double ordersPerSecond) {
+    }
+
+    /**
+     * the result for one order of a batch
+     * @param orderNo is the number of the order
+     * @param orderValidationCode is the validation result
+     * @param route is the index into the routes of the batch, -1 if the order is invalid or no path could be found
+     */
+    public record OrderRoute(String orderNo, OrderValidationCode orderValidationCode, int route) {
+    }
+}
@@ -0,0 +1,265 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * schedules a day of planned orders as shared trips flown by a fleet of drones.
+ * Orders of the same restaurant share its route, so they are packed into as few trips as the payload allows -
+ * at most {@link SystemConstants#MAX_PIZZAS_PER_ORDER} pizzas per trip - with best-fit decreasing, which needs
+ * only one bucket of open trips per remaining capacity and runs in linear time. Every trip is a round trip of
+ * its route, so fewer trips means fewer moves in total. The restaurants are packed in parallel.
+ * The trips are then assigned longest first to the drone with the fewest moves so far (LPT), which keeps the
+ * makespan within 4/3 of the optimum. Routes whose round trip exceeds {@link SystemConstants#DRONE_MAX_MOVES}
+ * cannot be flown and their orders are left unscheduled.
+ */
+public final class FleetScheduler {
+
+    /**
+     * the largest fleet a schedule is spread over, the working arrays and the schedule grow with the fleet
+     */
+    public static final int MAX_DRONES = 1000;
+
+    private FleetScheduler() {
+    }
+
+    /**
+     * check the size of a fleet before anything is planned for it
+     * @param drones is the size of the fleet
+     * @throws IllegalArgumentException if there is no drone or more than {@link #MAX_DRONES}
+     */
+    public static void checkFleetSize(int drones) {
+        if (drones < 1) {
+            throw new IllegalArgumentException("Fleet needs at least one drone.");
+        }
+        if (drones > MAX_DRONES) {
+            throw new IllegalArgumentException("Fleet can have at most " + MAX_DRONES + " drones.");
+        }
+    }
+
+    /**
+     * schedule the valid orders of a planned batch
+     * @param orders are the orders of the batch, in the order they were planned
+     * @param batch is the plan of the orders, with their routes
+     * @param drones is the size of the fleet
+     * @return the trips and the schedule of every drone
+     */
+    public static FleetPlan schedule(List<Order> orders, DeliveryPlanner.BatchPlan batch, int drones) {
+        checkFleetSize(drones);
+        if (orders.size() != batch.orders().size()) {
+            throw new IllegalArgumentException("Orders do not match the planned batch.");
+        }
+        long startNanos = System.nanoTime();
+
+        // round trip moves of every route as in RoundTrip, -1 if it cannot be flown
+        int routes = batch.routes().size();
+        int[] routeMoves = new int[routes];
+        for (int r = 0; r < routes; r++) {
+            PackedPath route = batch.routes().get(r);
+            int moves = (route == null) ? -1 : 2 * route.size();
+            routeMoves[r] = (moves > SystemConstants.DRONE_MAX_MOVES) ? -1 : moves;
+        }
+
+        // the orders of each route as compressed rows: ordersOfRoute[routeStart[r]] .. ordersOfRoute[routeStart[r + 1] - 1]
+        int[] routeStart = new int[routes + 1];
+        for (DeliveryPlanner.OrderRoute order : batch.orders()) {
+            if (order.route() >= 0 && routeMoves[order.route()] >= 0) {
+                routeStart[order.route() + 1]++;
+            }
+        }
+        for (int r = 0; r < routes; r++) {
+            routeStart[r + 1] += routeStart[r];
+        }
+        int[] fill = routeStart.clone();
+        int[] ordersOfRoute = new int[routeStart[routes]];
+        for (int i = 0; i < orders.size(); i++) {
+            int route = batch.orders().get(i).route();
+            if (route >= 0 && routeMoves[route] >= 0) {
+                ordersOfRoute[fill[route]++] = i;
+            }
+        }
+
+        // the restaurants are independent of each other
+        List<List<Trip>> tripsOfRoute = IntStream.range(0, routes).parallel()
+                .mapToObj(r -> pack(orders, r, routeMoves[r], Arrays.copyOfRange(ordersOfRoute, routeStart[r], routeStart[r + 1])))
+                .toList();
+        List<Trip> trips = new ArrayList<>();
+        tripsOfRoute.forEach(trips::addAll);
+
+        int[] droneOfTrip = new int[trips.size()];
+        long[] droneMoves = assign(trips, drones, droneOfTrip);
+
+        List<List<Integer>> tripsOfDrone = new ArrayList<>(drones);
+        for (int d = 0; d < drones; d++) {
+            tripsOfDrone.add(new ArrayList<>());
+        }
+        long totalMoves = 0;
+        List<Trip> assigned = new ArrayList<>(trips.size());
+        for (int t = 0; t < trips.size(); t++) {
+            Trip trip = trips.get(t);
+            assigned.add(new Trip(trip.route(), trip.orderNos(), trip.pizzas(), trip.moves(), droneOfTrip[t]));
+            tripsOfDrone.get(droneOfTrip[t]).add(t);
+            totalMoves += trip.moves();
+        }
+        List<DroneSchedule> schedules = new ArrayList<>(drones);
+        long makespan = 0;
+        for (int d = 0; d < drones; d++) {
+            schedules.add(new DroneSchedule(tripsOfDrone.get(d), droneMoves[d]));
+            makespan = Math.max(makespan, droneMoves[d]);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return new FleetPlan(batch.routes(), batch.orders(), assigned, schedules, ordersOfRoute.length,
+                orders.size() - ordersOfRoute.length, totalMoves, makespan, elapsedMillis);
+    }
+
+    // best-fit decreasing: largest orders first, each into the open trip with the least room that still fits it
+    private static List<Trip> pack(List<Order> orders, int route, int moves, int[] orderIndices) {
+        int capacity = SystemConstants.MAX_PIZZAS_PER_ORDER;
+
+        // counting sort by pizzas, largest first
+        int[][] bySize = new int[capacity + 1][];
+        int[] sizeCounts = new int[capacity + 1];
+        for (int i : orderIndices) {
+            sizeCounts[pizzas(orders.get(i))]++;
+        }
+        for (int size = 1; size <= capacity; size++) {
+            bySize[size] = new int[sizeCounts[size]];
+            sizeCounts[size] = 0;
+        }
+        for (int i : orderIndices) {
+            int size = pizzas(orders.get(i));
+            bySize[size][sizeCounts[size]++] = i;
+        }
+
+        List<List<String>> tripOrders = new ArrayList<>();
+        List<Integer> tripPizzas = new ArrayList<>();
+        // open trips by remaining room (1 .. capacity - 1), used as stacks
+        int[][] openByRoom = new int[capacity][];
+        int[] openCount = new int[capacity];
+        for (int room = 1; room < capacity; room++) {
+            openByRoom[room] = new int[Math.max(4, orderIndices.length)];
+        }
+
+        for (int size = capacity; size >= 1; size--) {
+            for (int i : bySize[size]) {
+                int trip;
+                int room = size;
+                while (room < capacity && openCount[room] == 0) {
+                    room++;
+                }
+                if (room < capacity) {
+                    trip = openByRoom[room][--openCount[room]];
+                } else {
+                    trip = tripOrders.size();
+                    tripOrders.add(new ArrayList<>(capacity));
+                    tripPizzas.add(0);
+                }
+                tripOrders.get(trip).add(orders.get(i).getOrderNo());
+                tripPizzas.set(trip, tripPizzas.get(trip) + size);
+                int left = room - size;
+                if (left > 0) {
+                    openByRoom[left][openCount[left]++] = trip;
+                }
+            }
+        }
+
+        List<Trip> trips = new ArrayList<>(tripOrders.size());
+        for (int t = 0; t < tripOrders.size(); t++) {
+            trips.add(new Trip(route, tripOrders.get(t), tripPizzas.get(t), moves, -1));
+        }
+        return trips;
+    }
+
+    // longest processing time first onto the least loaded drone, returns the moves of every drone
+    private static long[] assign(List<Trip> trips, int drones, int[] droneOfTrip) {
+        Integer[] longestFirst = new Integer[trips.size()];
+        for (int t = 0; t < longestFirst.length; t++) {
+            longestFirst[t] = t;
+        }
+        Arrays.sort(longestFirst, (a, b) -> Integer.compare(trips.get(b).moves(), trips.get(a).moves()));
+
+        // binary heap of drones by moves so far, ties to the lower drone number
+        long[] moves = new long[drones];
+        int[] heap = new int[drones];
+        for (int d = 0; d < drones; d++) {
+            heap[d] = d;
+        }
+        for (int t : longestFirst) {
+            int drone = heap[0];
+            droneOfTrip[t] = drone;
+            moves[drone] += trips.get(t).moves();
+            siftDown(heap, moves);
+        }
+        return moves;
+    }
+
+    private static void siftDown(int[] heap, long[] moves) {
+        int drone = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heap.length) {
+                break;
+            }
+            if (child + 1 < heap.length && lighter(heap[child + 1], heap[child], moves)) {
+                child++;
+            }
+            if (!lighter(heap[child], drone, moves)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = drone;
+    }
+
+    private static boolean lighter(int a, int b, long[] moves) {
+        return moves[a] != moves[b] ? moves[a] < moves[b] : a < b;
+    }
+
+    private static int pizzas(Order order) {
+        return order.getPizzasInOrder().length;
+    }
+
+    /**
+     * the schedule of a fleet
+     * @param routes are the delivery paths of the batch, referenced by the trips
+     * @param orders are the per-order results of the batch in input order
+     * @param trips are the trips, each flown by one drone
+     * @param drones are the trips of every drone in the order they were assigned
+     * @param scheduledOrders is the number of orders on a trip
+     * @param unscheduledOrders is the number of orders which are invalid or whose route cannot be flown
+     * @param totalMoves is the sum of the moves of all trips
+     * @param makespan is the most moves flown by any drone
+     * @param elapsedMillis is the time taken to schedule the fleet
+     */
+    public record FleetPlan(List<PackedPath> routes, List<DeliveryPlanner.OrderRoute> orders, List<Trip> trips, List<DroneSchedule> drones, int scheduledOrders,
+                            int unscheduledOrders, long totalMoves, long makespan, long elapsedMillis) {
+    }
+
+    /**
+     * one round trip carrying the orders of one restaurant
+     * @param route is the index into the routes of the plan
+     * @param orderNos are the numbers of the orders on board
+     * @param pizzas is the number of pizzas on board
+     * @param moves is the number of moves of the round trip, including the pickup and drop-off hovers
+     * @param drone is the drone flying the trip
+     */
+    public record Trip(int route, List<String> orderNos, int pizzas, int moves, int drone) {
+    }
+
+    /**
+     * the trips of one drone
+     * @param trips are the indices into the trips of the plan
+     * @param moves is the sum of the moves of these trips
+     */
+    public record DroneSchedule(List<Integer> trips, long moves) {
+    }
+}
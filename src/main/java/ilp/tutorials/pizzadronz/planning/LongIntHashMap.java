@@ -0,0 +1,126 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import java.util.Arrays;
+
+/**
+ * a map from long to int without boxing, for the state bookkeeping of path searches.
+ * Open addressing with linear probing in power-of-two sized arrays, kept at most half full.
+ * There is no removal. Not thread-safe.
+ */
+public final class LongIntHashMap {
+
+    // marks a free slot; the key itself is stored separately
+    private static final long FREE = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    /**
+     * create an empty map
+     * @param expectedSize is the number of entries the map should hold without growing
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * the value of a key
+     * @param key is the key
+     * @param missing is returned if the key is not in the map
+     * @return the value or missing
+     */
+    public int get(long key, int missing) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : missing;
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return values[slot];
+            }
+            if (k == FREE) {
+                return missing;
+            }
+        }
+    }
+
+    /**
+     * set the value of a key
+     * @param key is the key
+     * @param value is the new value
+     */
+    public void put(long key, int value) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return;
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            if (k == FREE) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * the number of entries
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // the finaliser of MurmurHash3, so neighbouring grid cells spread over the table
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int slot = slot(key);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
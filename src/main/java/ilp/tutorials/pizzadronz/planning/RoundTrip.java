@@ -0,0 +1,51 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+
+/**
+ * the whole flight of one order: from Appleton Tower to the restaurant, hovering for the pickup, back to Appleton
+ * Tower and hovering for the drop-off. A hover is a move which stays in place, i.e. the position is repeated.
+ * <p>
+ * Only the delivery leg is planned. The outbound leg is the delivery leg in reverse: a move which avoids the
+ * no-fly zones does so in both directions, and the rule not to leave the central area once inside only applies
+ * while the drone carries the order, so the reversed leg is always legal. The flight therefore starts where the
+ * delivery leg ends, close to Appleton Tower.
+ * @param path are the positions of the flight
+ * @param pickup is the index of the hover at the restaurant
+ * @param dropOff is the index of the hover at Appleton Tower, the last position
+ * @param moves is the number of moves including both hovers
+ */
+public record RoundTrip(PackedPath path, int pickup, int dropOff, int moves) {
+
+    /**
+     * build the round trip of a delivery leg
+     * @param delivery is the path from the restaurant to Appleton Tower
+     * @return the round trip
+     */
+    public static RoundTrip of(PackedPath delivery) {
+        int positions = delivery.size();
+        if (positions == 0) {
+            throw new IllegalArgumentException("Delivery path is empty.");
+        }
+        // the moves of both legs and the two hovers
+        int moves = 2 * (positions - 1) + 2;
+        if (moves > SystemConstants.DRONE_MAX_MOVES) {
+            throw new IllegalArgumentException("Round trip needs " + moves + " moves, more than the limit of "
+                    + SystemConstants.DRONE_MAX_MOVES + ".");
+        }
+
+        double[] lng = new double[moves + 1];
+        double[] lat = new double[moves + 1];
+        for (int i = 0; i < positions; i++) {
+            lng[i] = delivery.lng(positions - 1 - i);
+            lat[i] = delivery.lat(positions - 1 - i);
+            // the delivery leg follows the pickup hover, which repeats its first position
+            lng[positions + i] = delivery.lng(i);
+            lat[positions + i] = delivery.lat(i);
+        }
+        lng[moves] = lng[moves - 1];
+        lat[moves] = lat[moves - 1];
+        return new RoundTrip(PackedPath.wrap(lng, lat), positions, moves, moves);
+    }
+}
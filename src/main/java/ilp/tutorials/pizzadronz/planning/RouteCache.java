@@ -0,0 +1,172 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * bounded LRU cache of planned paths.
+ * A path only depends on its start, its destination and the no-fly zone / central area geometry, so the key includes
+ * the geometry version of the reference data. The whole cache is dropped when a refresh changes the geometry.
+ * Paths are held as {@link PackedPath}s. The statistics are also published as metrics.
+ */
+@Component
+public class RouteCache implements MeterBinder {
+
+    // rough heap cost of a cached entry (key, map entry, path object and array headers) and of one packed position
+    static final long ENTRY_OVERHEAD_BYTES = 200;
+    static final long BYTES_PER_POSITION = 16;
+
+    private final int maxEntries;
+    private final LinkedHashMap<RouteKey, PackedPath> entries;
+
+    private boolean geometryKnown;
+    private long geometryVersion;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long cachedPositions;
+
+    @Autowired
+    public RouteCache(ReferenceDataService referenceDataService,
+                      @Value("${pizzadronz.route-cache.max-entries:1024}") int maxEntries) {
+        this(maxEntries);
+        referenceDataService.addRefreshListener(this::onRefresh);
+    }
+
+    public RouteCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Route cache must hold at least one entry.");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteKey, PackedPath> eldest) {
+                if (size() > RouteCache.this.maxEntries) {
+                    evictions++;
+                    cachedPositions -= eldest.getValue().size();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * get a cached path or plan and cache it
+     * @param key identifies the route
+     * @param planner computes the path on a miss (called outside the cache lock)
+     * @return the path
+     */
+    public PackedPath get(RouteKey key, Supplier<? extends List<LngLat>> planner) {
+        synchronized (this) {
+            PackedPath cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        PackedPath path = PackedPath.copyOf(planner.get());
+
+        synchronized (this) {
+            if (!geometryKnown) {
+                geometryKnown = true;
+                geometryVersion = key.geometryVersion();
+            }
+            // paths planned against an outdated geometry are returned but not cached
+            if (key.geometryVersion() == geometryVersion) {
+                PackedPath previous = entries.put(key, path);
+                cachedPositions += path.size() - (previous == null ? 0 : previous.size());
+            }
+        }
+        return path;
+    }
+
+    /**
+     * drop all cached paths
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        cachedPositions = 0;
+    }
+
+    /**
+     * the cache statistics
+     * @return hit ratio, size and estimated memory use
+     */
+    public synchronized Stats stats() {
+        long lookups = hits + misses;
+        double hitRatio = (lookups == 0) ? 0 : (double) hits / lookups;
+        long estimatedBytes = entries.size() * ENTRY_OVERHEAD_BYTES + cachedPositions * BYTES_PER_POSITION;
+        return new Stats(hits, misses, hitRatio, evictions, entries.size(), cachedPositions, estimatedBytes);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pizzadronz.route.cache.hits", this, cache -> cache.stats().hits())
+                .description("paths served from the route cache")
+                .register(registry);
+        FunctionCounter.builder("pizzadronz.route.cache.misses", this, cache -> cache.stats().misses())
+                .description("paths that had to be planned")
+                .register(registry);
+        FunctionCounter.builder("pizzadronz.route.cache.evictions", this, cache -> cache.stats().evictions())
+                .description("paths dropped to stay within the size bound")
+                .register(registry);
+        Gauge.builder("pizzadronz.route.cache.size", this, cache -> cache.stats().size())
+                .description("cached paths")
+                .register(registry);
+        Gauge.builder("pizzadronz.route.cache.estimated", this, cache -> cache.stats().estimatedBytes())
+                .description("estimated heap used by the cached paths")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * drop all cached paths if the geometry of the new reference data differs
+     * @param referenceData is the new snapshot
+     */
+    public synchronized void onRefresh(ReferenceData referenceData) {
+        if (!geometryKnown || referenceData.geometryVersion() != geometryVersion) {
+            invalidateAll();
+            geometryKnown = true;
+            geometryVersion = referenceData.geometryVersion();
+        }
+    }
+
+    /**
+     * identifies a cached route
+     * @param start is where the path starts
+     * @param destination is where the path ends
+     * @param geometryVersion is the geometry version of the reference data used for planning
+     */
+    public record RouteKey(LngLat start, LngLat destination, long geometryVersion) {
+    }
+
+    /**
+     * route cache statistics
+     * @param hits is the number of paths served from the cache
+     * @param misses is the number of paths that had to be planned
+     * @param hitRatio is hits / (hits + misses)
+     * @param evictions is the number of paths dropped to stay within the size bound
+     * @param size is the number of cached paths
+     * @param cachedPositions is the total number of positions in the cached paths
+     * @param estimatedBytes is an estimate of the heap used by the cached paths
+     */
+    public record Stats(long hits, long misses, double hitRatio, long evictions, int size, long cachedPositions, long estimatedBytes) {
+    }
+}
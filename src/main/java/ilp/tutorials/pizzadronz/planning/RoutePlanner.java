@@ -0,0 +1,269 @@
+package ilp.tutorials.pizzadronz.planning;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.util.Arrays;
+
+/**
+ * A* route planner on the drone move lattice.
+ * Every move is exactly {@link SystemConstants#DRONE_MOVE_DISTANCE} long in one of the 16 compass directions,
+ * so the cost of a path is its number of moves. The heuristic is the distance in the norm whose unit ball is the
+ * 16-gon spanned by the moves - the exact move count on open ground and therefore admissible.
+ * Positions are merged on a grid much finer than one move to detect revisits; a grid cell is encoded as one long
+ * (see {@link #stateKey}) so the bookkeeping needs neither boxing nor an object per visited state, and the open
+ * nodes live in primitive arrays ordered by an index heap.
+ * <p>
+ * No move of a path touches a no-fly zone anywhere along its way, and a path never leaves the central area once it has entered it.
+ * The search gives up with an {@link IllegalArgumentException} when no path within
+ * {@link SystemConstants#DRONE_MAX_MOVES} exists or the expansion budget is used up.
+ * The node expansions of every search are recorded once the planner is bound to a meter registry.
+ */
+@Component
+public class RoutePlanner implements MeterBinder {
+
+    /**
+     * the number of legal compass directions
+     */
+    public static final int DIRECTIONS = LngLatHandler.COMPASS_DIRECTIONS;
+
+    // positions closer than this are treated as the same search state
+    private static final double STATE_RESOLUTION = SystemConstants.DRONE_MOVE_DISTANCE / 8;
+
+    // facet normals of the move 16-gon, scaled so that a dot product gives the distance in moves
+    private static final double[] FACET_LNG = new double[DIRECTIONS / 2];
+    private static final double[] FACET_LAT = new double[DIRECTIONS / 2];
+
+    // the largest ratio of lattice distance to euclidean distance (between two compass directions)
+    private static final double MAX_DETOUR = 1 / Math.cos(Math.PI / DIRECTIONS);
+
+    static {
+        double scale = MAX_DETOUR / SystemConstants.DRONE_MOVE_DISTANCE;
+        for (int i = 0; i < DIRECTIONS / 2; i++) {
+            double radians = Math.PI / DIRECTIONS + i * 2 * Math.PI / DIRECTIONS;
+            FACET_LNG[i] = scale * Math.cos(radians);
+            FACET_LAT[i] = scale * Math.sin(radians);
+        }
+    }
+
+    private final int maxExpansions;
+
+    private volatile DistributionSummary foundExpansions;
+    private volatile DistributionSummary failedExpansions;
+
+    public RoutePlanner(@Value("${pizzadronz.planner.max-expansions:250000}") int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+        // no-op until bound
+        MeterRegistry unbound = new CompositeMeterRegistry();
+        this.foundExpansions = expansions(unbound, "found");
+        this.failedExpansions = expansions(unbound, "failed");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        foundExpansions = expansions(registry, "found");
+        failedExpansions = expansions(registry, "failed");
+    }
+
+    /**
+     * plan the shortest legal path from start until a position close to the destination is reached
+     * @param start is where the drone starts
+     * @param destination is where the drone needs to get close to
+     * @param airspace holds the no-fly zones and the central area which cannot be left once entered
+     * @return the positions of the path, starting with start and ending close to the destination
+     */
+    public PackedPath plan(LngLat start, LngLat destination, Airspace airspace) {
+        SearchNodes nodes = new SearchNodes();
+        LongIntHashMap bestMoves = new LongIntHashMap(1024);
+
+        nodes.add(start.lng(), start.lat(), 0, minMoves(start.lng(), start.lat(), destination), -1);
+        bestMoves.put(stateKey(start.lng(), start.lat()), 0);
+
+        int expansions = 0;
+        while (!nodes.isEmpty()) {
+            int current = nodes.poll();
+            double lng = nodes.lng[current];
+            double lat = nodes.lat[current];
+            int currentMoves = nodes.moves[current];
+            if (currentMoves > bestMoves.get(stateKey(lng, lat), Integer.MAX_VALUE)) {
+                continue;
+            }
+            if (LngLatHandler.isCloseTo(lng, lat, destination.lng(), destination.lat())) {
+                foundExpansions.record(expansions);
+                return nodes.toPath(current);
+            }
+            if (++expansions > maxExpansions) {
+                failedExpansions.record(expansions);
+                throw new IllegalArgumentException("No valid path found within the search budget of " + maxExpansions + " expansions.");
+            }
+
+            boolean inCentralArea = airspace.isInCentralArea(lng, lat);
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                double nextLng = lng + LngLatHandler.moveLng(direction);
+                double nextLat = lat + LngLatHandler.moveLat(direction);
+                int moves = currentMoves + 1;
+                int estimate = minMoves(nextLng, nextLat, destination);
+                if (moves + estimate > SystemConstants.DRONE_MAX_MOVES) {
+                    continue;
+                }
+
+                long key = stateKey(nextLng, nextLat);
+                if (moves >= bestMoves.get(key, Integer.MAX_VALUE)) {
+                    continue;
+                }
+                if (airspace.moveCrossesNoFlyZone(lng, lat, nextLng, nextLat)) {
+                    continue;
+                }
+                if (inCentralArea && !airspace.isInCentralArea(nextLng, nextLat)) {
+                    continue;
+                }
+
+                bestMoves.put(key, moves);
+                nodes.add(nextLng, nextLat, moves, estimate, current);
+            }
+        }
+
+        failedExpansions.record(expansions);
+        throw new IllegalArgumentException("No valid path found avoiding no-fly zones within " + SystemConstants.DRONE_MAX_MOVES + " moves.");
+    }
+
+    /**
+     * the search state of a position: its cell on a grid of 1/8 move, as fixed-point longitude (high 32 bits) and
+     * latitude (low 32 bits). Positions reached along different move sequences end up in the same cell despite
+     * floating-point drift, unlike comparing the doubles themselves.
+     * @param lng is the longitude
+     * @param lat is the latitude
+     * @return the key of the cell
+     */
+    public static long stateKey(double lng, double lat) {
+        long lngCell = Math.round(lng / STATE_RESOLUTION);
+        long latCell = Math.round(lat / STATE_RESOLUTION);
+        return (lngCell << 32) | (latCell & 0xffffffffL);
+    }
+
+    private DistributionSummary expansions(MeterRegistry registry, String outcome) {
+        return DistributionSummary.builder("pizzadronz.planner.expansions")
+                .description("nodes expanded by a route search")
+                .tag("outcome", outcome)
+                .maximumExpectedValue((double) maxExpansions)
+                .register(registry);
+    }
+
+    /**
+     * a lower bound on the moves still needed to get close to the destination, exact on open ground.
+     * This is the heuristic of the search; a path of this many moves is the shortest there is.
+     * @param lng is the longitude of the position
+     * @param lat is the latitude of the position
+     * @param destination is where the drone needs to get close to
+     * @return the fewest moves any legal path could take
+     */
+    public static int minMoves(double lng, double lat, LngLat destination) {
+        double dLng = destination.lng() - lng;
+        double dLat = destination.lat() - lat;
+
+        double moves = 0;
+        for (int i = 0; i < FACET_LNG.length; i++) {
+            moves = Math.max(moves, Math.abs(dLng * FACET_LNG[i] + dLat * FACET_LAT[i]));
+        }
+
+        // any point within the close distance of the destination counts as arrived
+        double remaining = moves - SystemConstants.DRONE_IS_CLOSE_DISTANCE * MAX_DETOUR / SystemConstants.DRONE_MOVE_DISTANCE;
+        return remaining <= 0 ? 0 : (int) Math.ceil(remaining - 1e-9);
+    }
+
+    /**
+     * the nodes of one search in parallel arrays, with a binary heap of node indices:
+     * lowest estimated total first, deeper nodes first on ties
+     */
+    private static final class SearchNodes {
+        double[] lng = new double[1024];
+        double[] lat = new double[1024];
+        int[] moves = new int[1024];
+        int[] cost = new int[1024];
+        int[] parent = new int[1024];
+        int count;
+
+        int[] heap = new int[1024];
+        int heapSize;
+
+        void add(double nodeLng, double nodeLat, int nodeMoves, int estimate, int nodeParent) {
+            if (count == lng.length) {
+                int capacity = count * 2;
+                lng = Arrays.copyOf(lng, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                moves = Arrays.copyOf(moves, capacity);
+                cost = Arrays.copyOf(cost, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+            }
+            int node = count++;
+            lng[node] = nodeLng;
+            lat[node] = nodeLat;
+            moves[node] = nodeMoves;
+            cost[node] = nodeMoves + estimate;
+            parent[node] = nodeParent;
+
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (!before(node, heap[up])) {
+                    break;
+                }
+                heap[i] = heap[up];
+                i = up;
+            }
+            heap[i] = node;
+        }
+
+        boolean isEmpty() {
+            return heapSize == 0;
+        }
+
+        int poll() {
+            int first = heap[0];
+            int last = heap[--heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return first;
+        }
+
+        private boolean before(int a, int b) {
+            return cost[a] != cost[b] ? cost[a] < cost[b] : moves[a] > moves[b];
+        }
+
+        PackedPath toPath(int node) {
+            double[] pathLng = new double[moves[node] + 1];
+            double[] pathLat = new double[moves[node] + 1];
+            for (int i = node; i >= 0; i = parent[i]) {
+                pathLng[moves[i]] = lng[i];
+                pathLat[moves[i]] = lat[i];
+            }
+            return PackedPath.wrap(pathLng, pathLat);
+        }
+    }
+}
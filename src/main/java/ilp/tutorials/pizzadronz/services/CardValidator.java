@@ -0,0 +1,124 @@
+package ilp.tutorials.pizzadronz.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+/**
+ * checks the credit card information of an order without regular expressions or allocation.
+ * Digits are checked with one scan over the characters and the expiry is parsed in place. The current month is
+ * cached and only recomputed once the clock passes the start of the next month.
+ */
+@Component
+public class CardValidator {
+
+    // a card may expire at most this many months from now
+    private static final int MAX_EXPIRY_MONTHS_AHEAD = 5 * 12;
+
+    private final Clock clock;
+    private final boolean luhnCheck;
+
+    private volatile CurrentMonth currentMonth;
+
+    @Autowired
+    public CardValidator(@Value("${pizzadronz.validation.luhn-check:false}") boolean luhnCheck) {
+        this(Clock.systemDefaultZone(), luhnCheck);
+    }
+
+    public CardValidator(Clock clock, boolean luhnCheck) {
+        this.clock = clock;
+        this.luhnCheck = luhnCheck;
+        this.currentMonth = CurrentMonth.at(clock);
+    }
+
+    /**
+     * check a card number: 16 digits, passing the Luhn check if enabled
+     * @param number is the card number
+     * @return if the number is valid
+     */
+    public boolean isValidNumber(String number) {
+        if (number == null || number.length() != 16 || !isDigits(number, 0, 16)) {
+            return false;
+        }
+        return !luhnCheck || passesLuhn(number);
+    }
+
+    /**
+     * check an expiry date: MM/YY, not before the current month and at most five years ahead
+     * @param expiry is the expiry date
+     * @return if the expiry date is valid
+     */
+    public boolean isValidExpiry(String expiry) {
+        if (expiry == null || expiry.length() != 5 || expiry.charAt(2) != '/'
+                || !isDigits(expiry, 0, 2) || !isDigits(expiry, 3, 5)) {
+            return false;
+        }
+
+        int month = (expiry.charAt(0) - '0') * 10 + (expiry.charAt(1) - '0');
+        int year = 2000 + (expiry.charAt(3) - '0') * 10 + (expiry.charAt(4) - '0');
+        if (month < 1 || month > 12) {
+            return false;
+        }
+
+        int expiryIndex = year * 12 + month - 1;
+        int currentIndex = currentMonthIndex();
+        return expiryIndex >= currentIndex && expiryIndex <= currentIndex + MAX_EXPIRY_MONTHS_AHEAD;
+    }
+
+    /**
+     * check a CVV: 3 digits
+     * @param cvv is the CVV
+     * @return if the CVV is valid
+     */
+    public boolean isValidCvv(String cvv) {
+        return cvv != null && cvv.length() == 3 && isDigits(cvv, 0, 3);
+    }
+
+    // year * 12 + month - 1 of the current month
+    private int currentMonthIndex() {
+        CurrentMonth cached = currentMonth;
+        if (clock.millis() >= cached.nextMonthStartMillis()) {
+            cached = CurrentMonth.at(clock);
+            currentMonth = cached;
+        }
+        return cached.index();
+    }
+
+    private static boolean isDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean passesLuhn(String number) {
+        int sum = 0;
+        for (int i = number.length() - 1, position = 0; i >= 0; i--, position++) {
+            int digit = number.charAt(i) - '0';
+            if ((position & 1) == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return sum % 10 == 0;
+    }
+
+    private record CurrentMonth(int index, long nextMonthStartMillis) {
+        static CurrentMonth at(Clock clock) {
+            ZoneId zone = clock.getZone();
+            YearMonth now = YearMonth.now(clock);
+            long nextMonthStart = now.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new CurrentMonth(now.getYear() * 12 + now.getMonthValue() - 1, nextMonthStart);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ilp.tutorials.pizzadronz.services;
+
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+/**
+ * immutable lookup table from pizza name to the restaurant offering it.
+ * Built once per reference data snapshot so validation and path calculation need no per-order menu scans.
+ */
+public final class MenuIndex {
+
+    private final Map<String, MenuEntry> entriesByPizzaName;
+
+    private MenuIndex(Map<String, MenuEntry> entriesByPizzaName) {
+        this.entriesByPizzaName = entriesByPizzaName;
+    }
+
+    /**
+     * index the menus of all restaurants. If a pizza name appears on several menus the first restaurant wins.
+     * @param restaurants are the defined restaurants
+     * @return the index
+     */
+    public static MenuIndex of(List<Restaurant> restaurants) {
+        Map<String, MenuEntry> entries = new HashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant.menu() == null) {
+                continue;
+            }
+            Set<DayOfWeek> openingDays = openingDaysOf(restaurant);
+            for (Pizza pizza : restaurant.menu()) {
+                if (pizza != null && pizza.name() != null) {
+                    entries.putIfAbsent(pizza.name(), new MenuEntry(restaurant, pizza.priceInPence(), openingDays));
+                }
+            }
+        }
+        return new MenuIndex(Map.copyOf(entries));
+    }
+
+    /**
+     * find the menu entry for a pizza
+     * @param pizzaName is the (systemwide unique) pizza name
+     * @return the entry or null if no restaurant offers the pizza
+     */
+    public MenuEntry lookup(String pizzaName) {
+        if (pizzaName == null) {
+            return null;
+        }
+        return entriesByPizzaName.get(pizzaName);
+    }
+
+    /**
+     * the number of indexed pizzas
+     * @return the size of the index
+     */
+    public int size() {
+        return entriesByPizzaName.size();
+    }
+
+    private static Set<DayOfWeek> openingDaysOf(Restaurant restaurant) {
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (restaurant.openingDays() != null) {
+            for (DayOfWeek day : restaurant.openingDays()) {
+                if (day != null) {
+                    days.add(day);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(days);
+    }
+
+    /**
+     * a pizza on a restaurant menu
+     * @param restaurant is the restaurant offering the pizza (its location is where the delivery starts)
+     * @param priceInPence is the menu price of the pizza
+     * @param openingDays are the days the restaurant is open
+     */
+    public record MenuEntry(Restaurant restaurant, int priceInPence, Set<DayOfWeek> openingDays) {
+    }
+}
@@ -0,0 +1,246 @@
+package ilp.tutorials.pizzadronz.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
+import uk.ac.ed.inf.ilp.data.Order;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * validates a stream of orders (a JSON array or newline delimited JSON) in parallel.
+ * Orders are read one at a time and at most maxInFlight of them are being validated or waiting to be written,
+ * so the memory used does not depend on the size of the batch. Each result is written and flushed in input order
+ * as soon as it and every earlier result are available, without waiting for the rest of the input.
+ */
+@Service
+public class OrderBatchValidator {
+
+    private final ObjectMapper objectMapper;
+    private final int maxInFlight;
+    private final ExecutorService workers;
+
+    @Autowired
+    public OrderBatchValidator(ObjectMapper objectMapper,
+                               @Value("${pizzadronz.batch.parallelism:0}") int parallelism,
+                               @Value("${pizzadronz.batch.max-in-flight:256}") int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one order must be allowed in flight.");
+        }
+        this.objectMapper = objectMapper;
+        this.maxInFlight = maxInFlight;
+
+        int threads = (parallelism > 0) ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "order-validation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * find out whether the input is a JSON array, without consuming anything but leading whitespace.
+     * The response type and the format of the results follow from this one decision.
+     * @param in is the request body, the first byte of its value is pushed back
+     * @return true if the input starts with a JSON array, false if it is read as newline delimited JSON
+     * @throws IOException if reading fails
+     */
+    public static boolean startsWithArray(PushbackInputStream in) throws IOException {
+        int b = in.read();
+        while (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+            b = in.read();
+        }
+        if (b < 0) {
+            return false;
+        }
+        in.unread(b);
+        return b == '[';
+    }
+
+    /**
+     * validate all orders of the input and write one result per order.
+     * A JSON array is answered with a JSON array, newline delimited JSON with newline delimited JSON.
+     * The response is committed before the input is read, so input which is not valid JSON or not an order is answered
+     * with the results of the orders before it, followed by a {@link BatchError} in place of the remaining results.
+     * @param in is the request body
+     * @param out is the response body
+     * @param array is true if the input is a JSON array, see {@link #startsWithArray(PushbackInputStream)}
+     * @param validation validates a single order
+     * @throws IOException if reading or writing fails
+     */
+    public void validate(InputStream in, OutputStream out, boolean array, Function<Order, OrderValidationCode> validation) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            ResultWriter writer = new ResultWriter(generator, array);
+
+            try {
+                if (array) {
+                    generator.writeStartArray();
+                }
+
+                int index = 0;
+                BatchError error = null;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (array) {
+                        if (token != JsonToken.START_ARRAY) {
+                            throw new JsonParseException(parser, "Expected a JSON array of orders.");
+                        }
+                        token = parser.nextToken();
+                    }
+
+                    while (token != null && token != JsonToken.END_ARRAY) {
+                        Order order = objectMapper.readValue(parser, Order.class);
+                        CompletableFuture<OrderValidationResult> result =
+                                CompletableFuture.supplyAsync(() -> OrderValidationResult.of(order, validation.apply(order)), workers);
+                        writer.add(result);
+                        // written as soon as it and every earlier result is done, even while the next order is still being read
+                        result.whenComplete((r, e) -> writer.drain());
+                        index++;
+                        if (writer.pending() >= maxInFlight) {
+                            writer.awaitHead();
+                        }
+                        writer.rethrowFailure();
+                        token = parser.nextToken();
+                    }
+                } catch (JsonProcessingException e) {
+                    // the rest of the input cannot be read reliably, the orders before it are still answered
+                    error = new BatchError(e.getOriginalMessage(), index);
+                }
+                while (writer.pending() > 0) {
+                    writer.awaitHead();
+                }
+
+                if (error != null) {
+                    writer.write(error);
+                }
+                if (array) {
+                    generator.writeEndArray();
+                }
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * writes the results in input order. Results are written by whichever thread finds the head of the queue done:
+     * the worker completing it, or the reading thread waiting for room.
+     */
+    private final class ResultWriter {
+
+        private final JsonGenerator generator;
+        private final boolean array;
+        private final ArrayDeque<CompletableFuture<OrderValidationResult>> inFlight = new ArrayDeque<>(maxInFlight);
+        private Exception failure;
+        private boolean closed;
+
+        ResultWriter(JsonGenerator generator, boolean array) {
+            this.generator = generator;
+            this.array = array;
+        }
+
+        synchronized void add(CompletableFuture<OrderValidationResult> result) {
+            inFlight.add(result);
+        }
+
+        synchronized int pending() {
+            return inFlight.size();
+        }
+
+        // write and flush every finished result at the head of the queue
+        synchronized void drain() {
+            while (!closed && failure == null && !inFlight.isEmpty() && inFlight.peek().isDone()) {
+                try {
+                    write(inFlight.poll().join());
+                } catch (IOException | RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+
+        // wait for the oldest result and write everything that is done by then
+        void awaitHead() throws IOException {
+            CompletableFuture<OrderValidationResult> head;
+            synchronized (this) {
+                head = inFlight.peek();
+            }
+            if (head != null) {
+                head.handle((r, e) -> r).join();
+                drain();
+            }
+            rethrowFailure();
+        }
+
+        // wrapped, so that a failure to write a result is not taken for malformed input
+        synchronized void rethrowFailure() throws IOException {
+            if (failure instanceof IOException e) {
+                throw new IOException("Writing the validation results failed.", e);
+            }
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+        }
+
+        // results finishing after the batch failed are not written
+        synchronized void close() {
+            closed = true;
+        }
+
+        private synchronized void write(Object result) throws IOException {
+            objectMapper.writeValue(generator, result);
+            if (!array) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+
+    /**
+     * ends the results of a batch whose input could not be read to the end
+     * @param error is the reason
+     * @param index is the position of the element which could not be read, counting from 0
+     */
+    public record BatchError(String error, int index) {
+    }
+
+    /**
+     * the validation result of one order of a batch
+     * @param orderNo is the number of the order
+     * @param orderStatus is VALID or INVALID
+     * @param orderValidationCode is the reason code
+     */
+    public record OrderValidationResult(String orderNo, OrderStatus orderStatus, OrderValidationCode orderValidationCode) {
+
+        static OrderValidationResult of(Order order, OrderValidationCode code) {
+            return new OrderValidationResult(order == null ? null : order.getOrderNo(),
+                    code == OrderValidationCode.NO_ERROR ? OrderStatus.VALID : OrderStatus.INVALID, code);
+        }
+    }
+}
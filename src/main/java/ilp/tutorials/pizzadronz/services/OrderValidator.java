@@ -0,0 +1,268 @@
+package ilp.tutorials.pizzadronz.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Service;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.CreditCardInformation;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+import uk.ac.ed.inf.ilp.interfaces.OrderValidation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * validates orders with an ordered pipeline of rules.
+ * Cheap structural checks run first and the menu lookups last; the first rule which rejects the order decides
+ * the validation code and the remaining rules are skipped. Every rule counts how often it ran and how often it
+ * rejected, and every result code is counted, see {@link #stats()}. The clock is read for one order in
+ * {@value #TIMING_SAMPLE} only, as timing every rule would cost as much as the rules themselves; the time per rule is
+ * extrapolated from these samples. The same counters are published as metrics when bound to a meter registry,
+ * without any extra work per order.
+ */
+@Service
+public class OrderValidator implements OrderValidation, MeterBinder {
+
+    private static final OrderValidationCode[] CODES = OrderValidationCode.values();
+
+    /**
+     * one order in this many has its rules timed
+     */
+    public static final int TIMING_SAMPLE = 64;
+
+    private final Rule[] rules;
+
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder[] evaluations;
+    private final LongAdder[] rejections;
+    private final LongAdder[] timedEvaluations;
+    private final LongAdder[] nanos;
+    private final LongAdder[] results = adders(CODES.length);
+
+    public OrderValidator(CardValidator cardValidator) {
+        this.rules = new Rule[] {
+                new Rule("pizzaCount", (order, menuIndex) -> checkPizzaCount(order)),
+                new Rule("total", (order, menuIndex) -> checkTotal(order)),
+                new Rule("cardNumber", (order, menuIndex) -> checkCardNumber(order, cardValidator)),
+                new Rule("expiry", (order, menuIndex) -> cardValidator.isValidExpiry(order.getCreditCardInformation().getCreditCardExpiry())
+                        ? OrderValidationCode.NO_ERROR : OrderValidationCode.EXPIRY_DATE_INVALID),
+                new Rule("cvv", (order, menuIndex) -> cardValidator.isValidCvv(order.getCreditCardInformation().getCvv())
+                        ? OrderValidationCode.NO_ERROR : OrderValidationCode.CVV_INVALID),
+                new Rule("menu", OrderValidator::checkMenu)
+        };
+        this.evaluations = adders(rules.length);
+        this.rejections = adders(rules.length);
+        this.timedEvaluations = adders(rules.length);
+        this.nanos = adders(rules.length);
+    }
+
+    /**
+     * validate an order against the given restaurants. The menus are indexed for this call only, requests should
+     * use {@link #validate(Order, MenuIndex)} with the index of the current snapshot instead.
+     * @param orderToValidate is the order which needs validation
+     * @param definedRestaurants is the vector of defined restaurants with their according menu structure
+     * @return the order with status and validation code set
+     */
+    @Override
+    public Order validateOrder(Order orderToValidate, Restaurant[] definedRestaurants) {
+        MenuIndex menuIndex = MenuIndex.of(definedRestaurants == null ? List.of() : Arrays.asList(definedRestaurants));
+        OrderValidationCode code = validate(orderToValidate, menuIndex);
+
+        Order result = (orderToValidate == null) ? new Order() : orderToValidate;
+        result.setOrderStatus(code == OrderValidationCode.NO_ERROR ? OrderStatus.VALID : OrderStatus.INVALID);
+        result.setOrderValidationCode(code);
+        return result;
+    }
+
+    /**
+     * validate an order
+     * @param order is the order
+     * @param menuIndex is the menu index of the snapshot to validate against
+     * @return the code of the first rule rejecting the order or NO_ERROR
+     */
+    public OrderValidationCode validate(Order order, MenuIndex menuIndex) {
+        validations.increment();
+        boolean timed = ThreadLocalRandom.current().nextInt(TIMING_SAMPLE) == 0;
+        for (int i = 0; i < rules.length; i++) {
+            OrderValidationCode code;
+            if (timed) {
+                long start = System.nanoTime();
+                code = rules[i].check().apply(order, menuIndex);
+                nanos[i].add(System.nanoTime() - start);
+                timedEvaluations[i].increment();
+            } else {
+                code = rules[i].check().apply(order, menuIndex);
+            }
+            evaluations[i].increment();
+            if (code != OrderValidationCode.NO_ERROR) {
+                rejections[i].increment();
+                results[code.ordinal()].increment();
+                return code;
+            }
+        }
+        results[OrderValidationCode.NO_ERROR.ordinal()].increment();
+        return OrderValidationCode.NO_ERROR;
+    }
+
+    /**
+     * the counters of the rules in pipeline order
+     * @return the statistics
+     */
+    public Stats stats() {
+        List<RuleStats> ruleStats = new ArrayList<>(rules.length);
+        for (int i = 0; i < rules.length; i++) {
+            double averageNanos = averageNanos(i);
+            long evaluated = evaluations[i].sum();
+            ruleStats.add(new RuleStats(rules[i].name(), evaluated, rejections[i].sum(), Math.round(averageNanos * evaluated), averageNanos));
+        }
+        Map<OrderValidationCode, Long> codes = new EnumMap<>(OrderValidationCode.class);
+        for (OrderValidationCode code : CODES) {
+            codes.put(code, results[code.ordinal()].sum());
+        }
+        return new Stats(validations.sum(), ruleStats, codes);
+    }
+
+    // the counters are read when the registry is scraped
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (OrderValidationCode code : CODES) {
+            FunctionCounter.builder("pizzadronz.validation.orders", results[code.ordinal()], LongAdder::sum)
+                    .description("validated orders by result code")
+                    .tag("code", code.name())
+                    .register(registry);
+        }
+        for (int i = 0; i < rules.length; i++) {
+            int rule = i;
+            FunctionTimer.builder("pizzadronz.validation.rule", this,
+                            validator -> validator.evaluations[rule].sum(),
+                            validator -> validator.averageNanos(rule) * validator.evaluations[rule].sum(), TimeUnit.NANOSECONDS)
+                    .description("evaluations of a validation rule and the time spent in it")
+                    .tag("rule", rules[i].name())
+                    .register(registry);
+            FunctionCounter.builder("pizzadronz.validation.rule.rejections", rejections[i], LongAdder::sum)
+                    .description("orders rejected by a validation rule")
+                    .tag("rule", rules[i].name())
+                    .register(registry);
+        }
+    }
+
+    // the order must contain between one and the maximum number of pizzas
+    private static OrderValidationCode checkPizzaCount(Order order) {
+        if (order == null || order.getPizzasInOrder() == null || order.getPizzasInOrder().length == 0) {
+            return OrderValidationCode.EMPTY_ORDER;
+        }
+        if (order.getPizzasInOrder().length > SystemConstants.MAX_PIZZAS_PER_ORDER) {
+            return OrderValidationCode.MAX_PIZZA_COUNT_EXCEEDED;
+        }
+        return OrderValidationCode.NO_ERROR;
+    }
+
+    // the total must be the sum of the stated pizza prices plus the order charge
+    private static OrderValidationCode checkTotal(Order order) {
+        int calculatedTotal = SystemConstants.ORDER_CHARGE_IN_PENCE;
+        for (Pizza pizza : order.getPizzasInOrder()) {
+            if (pizza == null) {
+                return OrderValidationCode.PIZZA_NOT_DEFINED;
+            }
+            calculatedTotal += pizza.priceInPence();
+        }
+        return (calculatedTotal == order.getPriceTotalInPence()) ? OrderValidationCode.NO_ERROR : OrderValidationCode.TOTAL_INCORRECT;
+    }
+
+    // missing card details count as an invalid number, so the expiry and CVV rules always have them
+    private static OrderValidationCode checkCardNumber(Order order, CardValidator cardValidator) {
+        CreditCardInformation cc = order.getCreditCardInformation();
+        return (cc != null && cardValidator.isValidNumber(cc.getCreditCardNumber()))
+                ? OrderValidationCode.NO_ERROR : OrderValidationCode.CARD_NUMBER_INVALID;
+    }
+
+    // all pizzas must be defined at their menu price and come from the same restaurant, which must be open on the
+    // order date; everything is answered from one index lookup per pizza
+    private static OrderValidationCode checkMenu(Order order, MenuIndex menuIndex) {
+        MenuIndex.MenuEntry first = null;
+        boolean multipleRestaurants = false;
+
+        for (Pizza pizza : order.getPizzasInOrder()) {
+            MenuIndex.MenuEntry entry = menuIndex.lookup(pizza.name());
+            if (entry == null) {
+                return OrderValidationCode.PIZZA_NOT_DEFINED;
+            }
+            if (pizza.priceInPence() != entry.priceInPence()) {
+                return OrderValidationCode.PRICE_FOR_PIZZA_INVALID;
+            }
+            if (first == null) {
+                first = entry;
+            } else if (first.restaurant() != entry.restaurant()) {
+                multipleRestaurants = true;
+            }
+        }
+
+        if (multipleRestaurants) {
+            return OrderValidationCode.PIZZA_FROM_MULTIPLE_RESTAURANTS;
+        }
+        // orders without a date (null or the LocalDate.MIN default) are not checked against the opening days
+        LocalDate orderDate = order.getOrderDate();
+        if (orderDate != null && !orderDate.equals(LocalDate.MIN) && !first.openingDays().contains(orderDate.getDayOfWeek())) {
+            return OrderValidationCode.RESTAURANT_CLOSED;
+        }
+        return OrderValidationCode.NO_ERROR;
+    }
+
+    // the average time of a rule over the timed orders
+    private double averageNanos(int rule) {
+        long timed = timedEvaluations[rule].sum();
+        return timed == 0 ? 0 : (double) nanos[rule].sum() / timed;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * a single check of the pipeline
+     */
+    @FunctionalInterface
+    interface Check {
+        OrderValidationCode apply(Order order, MenuIndex menuIndex);
+    }
+
+    private record Rule(String name, Check check) {
+    }
+
+    /**
+     * statistics of the validation pipeline
+     * @param validations is the number of validated orders
+     * @param rules are the counters of each rule in pipeline order
+     * @param codes is the number of orders per result code
+     */
+    public record Stats(long validations, List<RuleStats> rules, Map<OrderValidationCode, Long> codes) {
+    }
+
+    /**
+     * statistics of one rule
+     * @param name is the name of the rule
+     * @param evaluations is how often the rule ran, i.e. no earlier rule rejected the order
+     * @param rejections is how often the rule rejected an order
+     * @param totalNanos is the time spent in the rule, extrapolated from the timed orders
+     * @param averageNanos is the average time per evaluation of the timed orders
+     */
+    public record RuleStats(String name, long evaluations, long rejections, long totalNanos, double averageNanos) {
+    }
+}
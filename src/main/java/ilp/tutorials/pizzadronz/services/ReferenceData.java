@@ -0,0 +1,132 @@
+package ilp.tutorials.pizzadronz.services;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * immutable snapshot of the reference data loaded from the REST service
+ */
+public final class ReferenceData {
+
+    private final List<Restaurant> restaurants;
+    private final List<NamedRegion> noFlyZones;
+    private final NamedRegion centralArea;
+    private final Airspace airspace;
+    private final MenuIndex menuIndex;
+    private final long geometryVersion;
+    private final Instant loadedAt;
+
+    private ReferenceData(List<Restaurant> restaurants, List<NamedRegion> noFlyZones, NamedRegion centralArea, Instant loadedAt) {
+        this.restaurants = restaurants;
+        this.noFlyZones = noFlyZones;
+        this.centralArea = centralArea;
+        this.airspace = Airspace.of(noFlyZones, centralArea);
+        this.menuIndex = MenuIndex.of(restaurants);
+        this.geometryVersion = geometryHash(noFlyZones, centralArea);
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * build a snapshot from freshly fetched data
+     * @param restaurants is the vector of defined restaurants
+     * @param noFlyZones are the no-fly zones
+     * @param centralArea is the central area
+     * @param loadedAt is when the data was fetched
+     * @return the snapshot
+     */
+    public static ReferenceData of(Restaurant[] restaurants, NamedRegion[] noFlyZones, NamedRegion centralArea, Instant loadedAt) {
+        if (restaurants == null || noFlyZones == null) {
+            throw new IllegalArgumentException("Reference data is missing restaurants or no-fly zones.");
+        }
+        if (centralArea == null || centralArea.vertices() == null) {
+            throw new IllegalArgumentException("Central Area response is missing 'vertices'.");
+        }
+        return new ReferenceData(List.of(restaurants), List.of(noFlyZones), centralArea, loadedAt);
+    }
+
+    /**
+     * the defined restaurants
+     * @return an unmodifiable list of restaurants
+     */
+    public List<Restaurant> restaurants() {
+        return restaurants;
+    }
+
+    /**
+     * the no-fly zones
+     * @return an unmodifiable list of no-fly zones
+     */
+    public List<NamedRegion> noFlyZones() {
+        return noFlyZones;
+    }
+
+    /**
+     * the central area
+     * @return the central area region
+     */
+    public NamedRegion centralArea() {
+        return centralArea;
+    }
+
+    /**
+     * the prepared no-fly zones and central area used for planning
+     * @return the airspace
+     */
+    public Airspace airspace() {
+        return airspace;
+    }
+
+    /**
+     * the pizza name index over all restaurant menus
+     * @return the menu index
+     */
+    public MenuIndex menuIndex() {
+        return menuIndex;
+    }
+
+    /**
+     * a hash over the no-fly zones and the central area. Snapshots with the same geometry produce the same paths.
+     * @return the geometry version
+     */
+    public long geometryVersion() {
+        return geometryVersion;
+    }
+
+    /**
+     * when this snapshot was fetched
+     * @return the load time
+     */
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    // 64 bit FNV-1a over all vertex coordinates
+    private static long geometryHash(List<NamedRegion> noFlyZones, NamedRegion centralArea) {
+        long hash = 0xcbf29ce484222325L;
+        for (NamedRegion zone : noFlyZones) {
+            hash = mix(hashVertices(hash, zone.vertices()), zone.vertices().length);
+        }
+        return mix(hashVertices(hash, centralArea.vertices()), centralArea.vertices().length);
+    }
+
+    private static long hashVertices(long hash, LngLat[] vertices) {
+        for (LngLat vertex : vertices) {
+            hash = mix(hash, Double.doubleToLongBits(vertex.lng()));
+            hash = mix(hash, Double.doubleToLongBits(vertex.lat()));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,252 @@
+package ilp.tutorials.pizzadronz.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * keeps the reference data in memory and refreshes it in the background.
+ * Requests are always answered from the current snapshot - the REST service is only contacted by the refresh,
+ * except for the very first request if the initial load has not completed yet.
+ * A stale snapshot keeps being served while a refresh is running (stale-while-revalidate).
+ * With virtual threads enabled the refresh runs on a virtual thread, and the cold load is guarded by a lock which
+ * does not pin the carrier thread of waiting virtual threads.
+ */
+@Service
+public class ReferenceDataService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    private final ReferenceDataSource source;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ScheduledExecutorService refresher;
+    private final ReentrantLock initialLoadLock = new ReentrantLock();
+    private final Condition refreshFinished = initialLoadLock.newCondition();
+
+    private final AtomicReference<ReferenceData> current = new AtomicReference<>();
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean();
+    private final List<Consumer<ReferenceData>> refreshListeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    @Autowired
+    public ReferenceDataService(ReferenceDataSource source,
+                                @Value("${pizzadronz.reference-data.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(source, Duration.ofSeconds(ttlSeconds), Clock.systemUTC(), virtualThreads
+                ? Thread.ofVirtual().name("reference-data-refresh").factory()
+                : Thread.ofPlatform().name("reference-data-refresh").daemon().factory());
+    }
+
+    public ReferenceDataService(ReferenceDataSource source, Duration ttl, Clock clock) {
+        this(source, ttl, clock, Thread.ofPlatform().name("reference-data-refresh").daemon().factory());
+    }
+
+    public ReferenceDataService(ReferenceDataSource source, Duration ttl, Clock clock, ThreadFactory refreshThreads) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Reference data TTL must be positive.");
+        }
+        this.source = source;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(refreshThreads);
+    }
+
+    // warm the cache on startup and keep it fresh
+    @PostConstruct
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * get the current reference data
+     * @return the current snapshot (possibly stale while a refresh is running)
+     */
+    public ReferenceData snapshot() {
+        ReferenceData data = current.get();
+        if (data == null) {
+            misses.increment();
+            return loadInitial();
+        }
+
+        hits.increment();
+        if (isStale(data)) {
+            refreshAsync();
+        }
+        return data;
+    }
+
+    /**
+     * load fresh data from the source and replace the current snapshot
+     * @return the new snapshot
+     */
+    public ReferenceData refresh() {
+        ReferenceData data = load();
+        current.set(data);
+        refreshes.incrementAndGet();
+        // the snapshot is published already, a failing listener must not stop the others or fail the refresh
+        for (Consumer<ReferenceData> listener : refreshListeners) {
+            try {
+                listener.accept(data);
+            } catch (RuntimeException e) {
+                logger.warn("Reference data refresh listener failed", e);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * register a callback which is run with every new snapshot (e.g. to invalidate derived caches)
+     * @param listener is called on the refreshing thread
+     */
+    public void addRefreshListener(Consumer<ReferenceData> listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * the cache statistics
+     * @return hits, misses, refresh counts and the age of the current snapshot
+     */
+    public Stats stats() {
+        ReferenceData data = current.get();
+        long ageMillis = (data == null) ? -1 : Duration.between(data.loadedAt(), clock.instant()).toMillis();
+        return new Stats(hits.sum(), misses.sum(), refreshes.get(), refreshFailures.get(), ageMillis);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pizzadronz.reference.data.hits", hits, LongAdder::sum)
+                .description("requests served from the in-memory snapshot")
+                .register(registry);
+        FunctionCounter.builder("pizzadronz.reference.data.misses", misses, LongAdder::sum)
+                .description("requests that had to wait for the initial load")
+                .register(registry);
+        FunctionCounter.builder("pizzadronz.reference.data.refreshes", refreshes, AtomicLong::get)
+                .description("successful loads of the reference data")
+                .register(registry);
+        FunctionCounter.builder("pizzadronz.reference.data.refresh.failures", refreshFailures, AtomicLong::get)
+                .description("failed background refreshes")
+                .register(registry);
+        Gauge.builder("pizzadronz.reference.data.age", this, service -> service.stats().ageMillis() / 1000.0)
+                .description("age of the current snapshot, negative before the first load")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    // only one thread performs the cold load, the others wait for its result. The load claims refreshInFlight like a
+    // background refresh, so a cold load racing the startup refresh waits for it instead of fetching everything twice
+    private ReferenceData loadInitial() {
+        initialLoadLock.lock();
+        try {
+            ReferenceData data = current.get();
+            while (data == null) {
+                if (refreshInFlight.compareAndSet(false, true)) {
+                    try {
+                        data = refresh();
+                    } finally {
+                        refreshInFlight.set(false);
+                    }
+                } else {
+                    // woken when the running refresh ends, whether it succeeded or not
+                    refreshFinished.awaitUninterruptibly();
+                    data = current.get();
+                }
+            }
+            return data;
+        } finally {
+            initialLoadLock.unlock();
+        }
+    }
+
+    private boolean isStale(ReferenceData data) {
+        return data.loadedAt().plus(ttl).isBefore(clock.instant());
+    }
+
+    private void refreshAsync() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(this::runClaimedRefresh);
+        } catch (RuntimeException e) {
+            refreshInFlight.set(false);
+            logger.warn("Could not schedule reference data refresh", e);
+        }
+    }
+
+    private void refreshQuietly() {
+        if (refreshInFlight.compareAndSet(false, true)) {
+            runClaimedRefresh();
+        }
+    }
+
+    // the caller has set refreshInFlight
+    private void runClaimedRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            logger.warn("Reference data refresh failed, keeping previous snapshot: {}", e.getMessage());
+        } finally {
+            refreshInFlight.set(false);
+            signalRefreshFinished();
+        }
+    }
+
+    private void signalRefreshFinished() {
+        initialLoadLock.lock();
+        try {
+            refreshFinished.signalAll();
+        } finally {
+            initialLoadLock.unlock();
+        }
+    }
+
+    private ReferenceData load() {
+        return ReferenceData.of(source.fetchRestaurants(), source.fetchNoFlyZones(), source.fetchCentralArea(), clock.instant());
+    }
+
+    /**
+     * reference data cache statistics
+     * @param hits is the number of requests served from memory
+     * @param misses is the number of requests that had to wait for the initial load
+     * @param refreshes is the number of successful loads
+     * @param refreshFailures is the number of failed background loads
+     * @param ageMillis is the age of the current snapshot in milliseconds (-1 if nothing is loaded)
+     */
+    public record Stats(long hits, long misses, long refreshes, long refreshFailures, long ageMillis) {
+    }
+}
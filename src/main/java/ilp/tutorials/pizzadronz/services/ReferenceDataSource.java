@@ -0,0 +1,27 @@
+package ilp.tutorials.pizzadronz.services;
+
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+/**
+ * where the reference data (restaurants, no-fly zones and the central area) is loaded from
+ */
+public interface ReferenceDataSource {
+    /**
+     * fetch all defined restaurants
+     * @return the restaurants with their menus
+     */
+    Restaurant[] fetchRestaurants();
+
+    /**
+     * fetch all no-fly zones
+     * @return the no-fly zones
+     */
+    NamedRegion[] fetchNoFlyZones();
+
+    /**
+     * fetch the central area
+     * @return the central area region
+     */
+    NamedRegion fetchCentralArea();
+}
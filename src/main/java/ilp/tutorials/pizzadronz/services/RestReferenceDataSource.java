@@ -0,0 +1,38 @@
+package ilp.tutorials.pizzadronz.services;
+
+import ilp.tutorials.pizzadronz.client.IlpRestClient;
+import org.springframework.stereotype.Component;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+/**
+ * loads the reference data from the ILP REST service
+ */
+@Component
+public class RestReferenceDataSource implements ReferenceDataSource {
+
+    private final IlpRestClient restClient;
+
+    public RestReferenceDataSource(IlpRestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    @Override
+    public Restaurant[] fetchRestaurants() {
+        return restClient.get("/restaurants", Restaurant[].class);
+    }
+
+    @Override
+    public NamedRegion[] fetchNoFlyZones() {
+        return restClient.get("/noFlyZones", NamedRegion[].class);
+    }
+
+    @Override
+    public NamedRegion fetchCentralArea() {
+        NamedRegion centralArea = restClient.get("/centralArea", NamedRegion.class);
+        if (centralArea.vertices() == null) {
+            throw new IllegalArgumentException("Central Area response is missing 'vertices'.");
+        }
+        return centralArea;
+    }
+}
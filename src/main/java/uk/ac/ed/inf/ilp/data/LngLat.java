@@ -1,10 +1,12 @@
 package uk.ac.ed.inf.ilp.data;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * defines a point using longitude @lng and latitude @lat
- * @param lng is the longitude
- * @param lat is the latitude
+ * @param lng is the longitude (required when read from JSON)
+ * @param lat is the latitude (required when read from JSON)
  */
-public record LngLat(double lng, double lat) {
+public record LngLat(@JsonProperty(required = true) double lng, @JsonProperty(required = true) double lat) {
 
 }
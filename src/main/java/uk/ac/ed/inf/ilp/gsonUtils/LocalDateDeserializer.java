@@ -1,15 +0,0 @@
-package uk.ac.ed.inf.ilp.gsonUtils;
-
-import com.google.gson.*;
-
-import java.lang.reflect.Type;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-
-public class LocalDateDeserializer implements JsonDeserializer< LocalDate > {
-    @Override
-    public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-            throws JsonParseException {
-        return LocalDate.parse(json.getAsString(), DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-    }
-}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.services.CardValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardValidatorTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-28T12:00:00Z"));
+    private final CardValidator validator = new CardValidator(clock, false);
+
+    @Test
+    public void testIsValidNumber_SixteenDigits() {
+        assertTrue(validator.isValidNumber("4485959141852684"));
+        assertTrue(validator.isValidNumber("0000000000000000"));
+        assertFalse(validator.isValidNumber("448595914185268"));
+        assertFalse(validator.isValidNumber("44859591418526840"));
+        assertFalse(validator.isValidNumber("4485 9591418526a"));
+        assertFalse(validator.isValidNumber("４４８５９５９１４１８５２６８４"));
+        assertFalse(validator.isValidNumber(""));
+        assertFalse(validator.isValidNumber(null));
+    }
+
+    @Test
+    public void testIsValidNumber_LuhnCheckWhenEnabled() {
+        CardValidator luhn = new CardValidator(clock, true);
+
+        assertTrue(luhn.isValidNumber("4485959141852684"));
+        assertTrue(luhn.isValidNumber("4111111111111111"));
+        assertFalse(luhn.isValidNumber("4485959141852685"));
+        assertFalse(luhn.isValidNumber("4111111111111112"));
+        assertTrue(validator.isValidNumber("4485959141852685"));
+    }
+
+    @Test
+    public void testIsValidExpiry_CurrentMonthUpToFiveYears() {
+        assertTrue(validator.isValidExpiry("01/24"));
+        assertTrue(validator.isValidExpiry("12/25"));
+        assertTrue(validator.isValidExpiry("01/29"));
+        assertFalse(validator.isValidExpiry("02/29"));
+        assertFalse(validator.isValidExpiry("12/23"));
+    }
+
+    @Test
+    public void testIsValidExpiry_Format() {
+        assertFalse(validator.isValidExpiry("13/25"));
+        assertFalse(validator.isValidExpiry("00/25"));
+        assertFalse(validator.isValidExpiry("1/25"));
+        assertFalse(validator.isValidExpiry("01-25"));
+        assertFalse(validator.isValidExpiry("01/2025"));
+        assertFalse(validator.isValidExpiry("0a/25"));
+        assertFalse(validator.isValidExpiry(null));
+    }
+
+    @Test
+    public void testIsValidExpiry_RollsOverWithTheClock() {
+        assertTrue(validator.isValidExpiry("01/24"));
+
+        clock.advance(Duration.ofDays(3));
+        assertTrue(validator.isValidExpiry("01/24"));
+
+        clock.advance(Duration.ofDays(1));
+        assertFalse(validator.isValidExpiry("01/24"));
+        assertTrue(validator.isValidExpiry("02/24"));
+        assertTrue(validator.isValidExpiry("02/29"));
+    }
+
+    @Test
+    public void testIsValidCvv_ThreeDigits() {
+        assertTrue(validator.isValidCvv("816"));
+        assertTrue(validator.isValidCvv("000"));
+        assertFalse(validator.isValidCvv("81"));
+        assertFalse(validator.isValidCvv("8160"));
+        assertFalse(validator.isValidCvv("8a6"));
+        assertFalse(validator.isValidCvv(null));
+    }
+}
@@ -0,0 +1,166 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import ilp.tutorials.pizzadronz.planning.CostToGoField;
+import ilp.tutorials.pizzadronz.planning.CostToGoFields;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CostToGoFieldTest {
+
+    private static final LngLat APPLETON = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+
+    private static Restaurant[] restaurants;
+    private static NamedRegion centralArea;
+    private static NamedRegion[] noFlyZones;
+    private static Airspace airspace;
+    private static CostToGoField field;
+
+    @BeforeAll
+    public static void buildField() throws Exception {
+        restaurants = RoutePlannerTest.readJson("/json/Restaurants.json", Restaurant[].class);
+        centralArea = RoutePlannerTest.readJson("/json/NamedRegion.json", NamedRegion.class);
+        noFlyZones = RoutePlannerTest.readJson("/json/NoFlyZones.json", NamedRegion[].class);
+        airspace = Airspace.of(Arrays.asList(noFlyZones), centralArea);
+        RoutePlannerTest.loadFixtures();
+
+        double[] lng = Arrays.stream(restaurants).mapToDouble(r -> r.location().lng()).toArray();
+        double[] lat = Arrays.stream(restaurants).mapToDouble(r -> r.location().lat()).toArray();
+        field = CostToGoField.build(airspace, APPLETON, Arrays.stream(lng).min().orElseThrow(), Arrays.stream(lat).min().orElseThrow(),
+                Arrays.stream(lng).max().orElseThrow(), Arrays.stream(lat).max().orElseThrow());
+    }
+
+    @Test
+    public void testPathFrom_AllRestaurantsProduceShortestLegalPaths() {
+        RoutePlanner planner = new RoutePlanner(250_000);
+        for (Restaurant restaurant : restaurants) {
+            PackedPath path = field.pathFrom(restaurant.location());
+            assertNotNull(path, restaurant.name());
+            RoutePlannerTest.assertLegalPath(restaurant.location(), path);
+            assertEquals(planner.plan(restaurant.location(), APPLETON, airspace).size(), path.size(), restaurant.name());
+        }
+    }
+
+    @Test
+    public void testPathFrom_StartsAroundTheZonesGiveShortestPathsOrNone() {
+        RoutePlanner planner = new RoutePlanner(250_000);
+        Random random = new Random(1);
+        int fieldPaths = 0;
+        for (NamedRegion zone : noFlyZones) {
+            double minLng = Arrays.stream(zone.vertices()).mapToDouble(LngLat::lng).min().orElseThrow() - 0.0005;
+            double maxLng = Arrays.stream(zone.vertices()).mapToDouble(LngLat::lng).max().orElseThrow() + 0.0005;
+            double minLat = Arrays.stream(zone.vertices()).mapToDouble(LngLat::lat).min().orElseThrow() - 0.0005;
+            double maxLat = Arrays.stream(zone.vertices()).mapToDouble(LngLat::lat).max().orElseThrow() + 0.0005;
+            for (int i = 0; i < 15; i++) {
+                LngLat start = new LngLat(minLng + random.nextDouble() * (maxLng - minLng), minLat + random.nextDouble() * (maxLat - minLat));
+                if (airspace.isInNoFlyZone(start.lng(), start.lat())) {
+                    continue;
+                }
+                // detours the field cannot prove to be shortest are left to the planner
+                PackedPath path = field.pathFrom(start);
+                if (path != null) {
+                    RoutePlannerTest.assertLegalPath(start, path);
+                    assertEquals(planner.plan(start, APPLETON, airspace).size(), path.size(), "from " + start);
+                    fieldPaths++;
+                }
+            }
+        }
+        assertTrue(fieldPaths > 0);
+    }
+
+    @Test
+    public void testPathFrom_StartCloseToDestinationIsSinglePosition() {
+        LngLat start = new LngLat(APPLETON.lng() + 0.0001, APPLETON.lat());
+
+        assertEquals(List.of(start), field.pathFrom(start));
+    }
+
+    @Test
+    public void testPathFrom_OutsideTheFieldGivesNoPath() {
+        assertNull(field.pathFrom(new LngLat(APPLETON.lng() + 1, APPLETON.lat())));
+        assertEquals(Double.POSITIVE_INFINITY, field.movesFrom(APPLETON.lng(), APPLETON.lat() - 1));
+    }
+
+    @Test
+    public void testMovesFrom_BoundedByStraightLineDistance() {
+        for (Restaurant restaurant : restaurants) {
+            double straightLine = Math.hypot(restaurant.location().lng() - APPLETON.lng(), restaurant.location().lat() - APPLETON.lat())
+                    - SystemConstants.DRONE_IS_CLOSE_DISTANCE;
+            double moves = field.movesFrom(restaurant.location().lng(), restaurant.location().lat());
+            assertTrue(moves >= straightLine / SystemConstants.DRONE_MOVE_DISTANCE - 1, restaurant.name());
+        }
+        assertTrue(field.reachable() > 0);
+        assertEquals(4L * field.columns() * field.rows() + 16, field.estimatedBytes());
+    }
+
+    @Test
+    public void testBuild_UnreachableDestinationHasNoValues() {
+        LngLat destination = new LngLat(-3.1889, 55.9438);
+        NamedRegion cage = new NamedRegion("cage", new LngLat[]{
+                new LngLat(-3.1895, 55.9443),
+                new LngLat(-3.1895, 55.9433),
+                new LngLat(-3.1883, 55.9433),
+                new LngLat(-3.1883, 55.9443)
+        });
+        LngLat start = restaurants[0].location();
+        CostToGoField caged = CostToGoField.build(Airspace.of(List.of(cage), centralArea), destination,
+                start.lng(), start.lat(), start.lng(), start.lat());
+
+        assertEquals(Double.POSITIVE_INFINITY, caged.movesFrom(start.lng(), start.lat()));
+        assertNull(caged.pathFrom(start));
+    }
+
+    @Test
+    public void testFields_OutdatedSnapshotsFallBackWithoutRebuilding() {
+        ReferenceData before = ReferenceData.of(restaurants, noFlyZones, centralArea, Instant.now());
+        ReferenceData after = ReferenceData.of(restaurants, new NamedRegion[0], centralArea, Instant.now());
+        CostToGoFields fields = new CostToGoFields(true);
+        LngLat start = restaurants[0].location();
+
+        fields.onRefresh(before);
+        assertNotNull(fields.pathToAppleton(start, before));
+        fields.onRefresh(after);
+        long afterBuildMillis = fields.stats().buildMillis();
+
+        // a request still holding the previous snapshot is left to the planner and keeps the current field
+        assertNull(fields.pathToAppleton(start, before));
+        assertNotNull(fields.pathToAppleton(start, after));
+        assertEquals(afterBuildMillis, fields.stats().buildMillis());
+        assertEquals(2, fields.stats().fieldPaths());
+        assertEquals(1, fields.stats().fallbacks());
+    }
+
+    @Test
+    public void testFields_RequestsBeforeTheRefreshFallBackWithoutBuilding() {
+        ReferenceData referenceData = ReferenceData.of(restaurants, noFlyZones, centralArea, Instant.now());
+        CostToGoFields fields = new CostToGoFields(true);
+        LngLat start = restaurants[0].location();
+
+        assertNull(fields.pathToAppleton(start, referenceData));
+        assertFalse(fields.stats().built());
+        fields.onRefresh(referenceData);
+        assertTrue(fields.stats().built());
+        assertNotNull(fields.pathToAppleton(start, referenceData));
+        assertEquals(1, fields.stats().fieldPaths());
+        assertEquals(1, fields.stats().fallbacks());
+    }
+
+    @Test
+    public void testBuild_RejectsHugeAreas() {
+        assertThrows(IllegalArgumentException.class, () -> CostToGoField.build(airspace, APPLETON, -4, 55, -2, 57));
+    }
+}
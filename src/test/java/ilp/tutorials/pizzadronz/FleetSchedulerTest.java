@@ -0,0 +1,110 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import ilp.tutorials.pizzadronz.planning.DeliveryPlanner;
+import ilp.tutorials.pizzadronz.planning.FleetScheduler;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.Order;
+import uk.ac.ed.inf.ilp.data.Pizza;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FleetSchedulerTest {
+
+    @Test
+    public void testSchedule_PacksOrdersOfARestaurantIntoFewestTrips() {
+        // 14 pizzas need at least 4 trips of 4: 4 | 3 + 1 | 2 + 2 | 1 + 1
+        List<Order> orders = orders(3, 1, 2, 2, 4, 1, 1);
+        FleetScheduler.FleetPlan plan = FleetScheduler.schedule(orders, batch(orders, new int[]{ 0, 0, 0, 0, 0, 0, 0 }, 10), 1);
+
+        assertEquals(4, plan.trips().size());
+        List<Integer> pizzas = plan.trips().stream().map(FleetScheduler.Trip::pizzas).sorted().toList();
+        assertEquals(List.of(2, 4, 4, 4), pizzas);
+        assertEquals(7, plan.trips().stream().mapToInt(trip -> trip.orderNos().size()).sum());
+        assertEquals(7, plan.scheduledOrders());
+        // a round trip of a 10 move route takes 22 moves
+        assertEquals(4 * 22, plan.totalMoves());
+        assertEquals(4 * 22, plan.makespan());
+    }
+
+    @Test
+    public void testSchedule_AssignsLongestTripsFirstToLeastLoadedDrone() {
+        // one full trip each for routes of 100, 60, 50 and 40 moves
+        List<Order> orders = orders(4, 4, 4, 4);
+        FleetScheduler.FleetPlan plan = FleetScheduler.schedule(orders, batch(orders, new int[]{ 0, 1, 2, 3 }, 100, 60, 50, 40), 2);
+
+        // 202 | 122 + 102, then 82 onto the lighter drone: 202 + 82 | 122 + 102
+        assertEquals(202 + 122 + 102 + 82, plan.totalMoves());
+        assertEquals(284, plan.makespan());
+        assertEquals(2, plan.drones().size());
+        assertEquals(284, plan.drones().get(0).moves());
+        assertEquals(224, plan.drones().get(1).moves());
+        for (int d = 0; d < 2; d++) {
+            for (int trip : plan.drones().get(d).trips()) {
+                assertEquals(d, plan.trips().get(trip).drone());
+            }
+        }
+    }
+
+    @Test
+    public void testSchedule_LeavesInvalidAndUnflyableOrdersUnscheduled() {
+        // the round trip of a 1000 move route needs 2002 moves
+        List<Order> orders = orders(1, 1, 1);
+        FleetScheduler.FleetPlan plan = FleetScheduler.schedule(orders, batch(orders, new int[]{ 0, 1, -1 }, 10, 1000), 3);
+
+        assertEquals(1, plan.trips().size());
+        assertEquals(List.of("ORDER0"), plan.trips().get(0).orderNos());
+        assertEquals(1, plan.scheduledOrders());
+        assertEquals(2, plan.unscheduledOrders());
+        assertEquals(22, plan.makespan());
+        assertEquals(List.of(), plan.drones().get(2).trips());
+    }
+
+    @Test
+    public void testSchedule_NeedsADrone() {
+        List<Order> orders = orders(1);
+        DeliveryPlanner.BatchPlan batch = batch(orders, new int[]{ 0 }, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> FleetScheduler.schedule(orders, batch, 0));
+        assertThrows(IllegalArgumentException.class, () -> FleetScheduler.schedule(orders, batch, FleetScheduler.MAX_DRONES + 1));
+    }
+
+    private static List<Order> orders(int... pizzaCounts) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < pizzaCounts.length; i++) {
+            Order order = new Order();
+            order.setOrderNo("ORDER" + i);
+            Pizza[] pizzas = new Pizza[pizzaCounts[i]];
+            Arrays.fill(pizzas, new Pizza("R1: Margarita", 1000));
+            order.setPizzasInOrder(pizzas);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    // a planned batch with straight routes of the given moves, orders on route -1 are invalid
+    private static DeliveryPlanner.BatchPlan batch(List<Order> orders, int[] routeOfOrder, int... routeMoves) {
+        List<PackedPath> routes = new ArrayList<>();
+        for (int moves : routeMoves) {
+            double[] lng = new double[moves + 1];
+            double[] lat = new double[moves + 1];
+            for (int i = 0; i <= moves; i++) {
+                lng[i] = SystemConstants.APPLETON_LNG + i * SystemConstants.DRONE_MOVE_DISTANCE;
+                lat[i] = SystemConstants.APPLETON_LAT;
+            }
+            routes.add(PackedPath.wrap(lng, lat));
+        }
+        List<DeliveryPlanner.OrderRoute> results = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            results.add(new DeliveryPlanner.OrderRoute(orders.get(i).getOrderNo(),
+                    routeOfOrder[i] >= 0 ? OrderValidationCode.NO_ERROR : OrderValidationCode.CARD_NUMBER_INVALID, routeOfOrder[i]));
+        }
+        return new DeliveryPlanner.BatchPlan(routes, results, 0, 0);
+    }
+}
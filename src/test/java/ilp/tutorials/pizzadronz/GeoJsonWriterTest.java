@@ -0,0 +1,88 @@
+package ilp.tutorials.pizzadronz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp.tutorials.pizzadronz.geometry.GeoJsonWriter;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeoJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static List<LngLat> path(int positions) {
+        List<LngLat> path = new ArrayList<>();
+        for (int i = 0; i < positions; i++) {
+            path.add(new LngLat(-3.1912869215011597 + i * 0.00015, 55.945535152517735 - i * 1e-7));
+        }
+        return path;
+    }
+
+    @Test
+    public void testWriteLineString_LongPathRoundTrips() throws IOException {
+        List<LngLat> path = path(2001);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        GeoJsonWriter writer = new GeoJsonWriter(out);
+        writer.writeLineString(path);
+        writer.flush();
+
+        JsonNode geoJson = objectMapper.readTree(out.toByteArray());
+        assertEquals("LineString", geoJson.get("type").asText());
+        JsonNode coordinates = geoJson.get("coordinates");
+        assertEquals(path.size(), coordinates.size());
+        for (int i = 0; i < path.size(); i++) {
+            assertEquals(path.get(i).lng(), coordinates.get(i).get(0).asDouble());
+            assertEquals(path.get(i).lat(), coordinates.get(i).get(1).asDouble());
+        }
+    }
+
+    @Test
+    public void testFeatureCollection_OneFeaturePerPath() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        GeoJsonWriter writer = new GeoJsonWriter(out);
+        writer.startFeatureCollection();
+        writer.writeFeature(path(3), "ORDER1");
+        writer.writeFeature(path(500), "quote\" back\\slash\n");
+        writer.writeFeature(path(1), null);
+        writer.endFeatureCollection();
+        writer.flush();
+
+        JsonNode collection = objectMapper.readTree(out.toByteArray());
+        assertEquals("FeatureCollection", collection.get("type").asText());
+        JsonNode features = collection.get("features");
+        assertEquals(3, features.size());
+        assertEquals("ORDER1", features.get(0).get("properties").get("orderNo").asText());
+        assertEquals("quote\" back\\slash\n", features.get(1).get("properties").get("orderNo").asText());
+        assertTrue(features.get(2).get("properties").get("orderNo").isNull());
+        assertEquals(500, features.get(1).get("geometry").get("coordinates").size());
+    }
+
+    @Test
+    public void testFeatureCollection_Empty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        GeoJsonWriter writer = new GeoJsonWriter(out);
+        writer.startFeatureCollection();
+        writer.endFeatureCollection();
+        writer.flush();
+
+        assertEquals("{\"type\":\"FeatureCollection\",\"features\":[]}", out.toString());
+    }
+
+    @Test
+    public void testWriteFeature_RequiresFeatureCollection() {
+        GeoJsonWriter writer = new GeoJsonWriter(new ByteArrayOutputStream());
+
+        assertThrows(IllegalStateException.class, () -> writer.writeFeature(path(2), "ORDER1"));
+        assertThrows(IllegalStateException.class, writer::endFeatureCollection);
+    }
+}
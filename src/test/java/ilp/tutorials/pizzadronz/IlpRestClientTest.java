@@ -0,0 +1,185 @@
+package ilp.tutorials.pizzadronz;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ilp.tutorials.pizzadronz.client.CircuitBreaker;
+import ilp.tutorials.pizzadronz.client.IlpRestClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IlpRestClientTest {
+
+    private static final String RESTAURANTS = """
+            [{"name": "Civerinos Slice",
+              "location": {"lng": -3.1912869215011597, "lat": 55.945535152517735},
+              "openingDays": ["MONDAY", "TUESDAY", "FRIDAY", "SATURDAY", "SUNDAY"],
+              "menu": [{"name": "R1: Margarita", "priceInPence": 1000}, {"name": "R1: Calzone", "priceInPence": 1400}]}]
+            """;
+
+    private static final String CENTRAL_AREA = """
+            {"name": "central", "vertices": [
+              {"lng": -3.192473, "lat": 55.946233}, {"lng": -3.192473, "lat": 55.942617},
+              {"lng": -3.184319, "lat": 55.942617}, {"lng": -3.184319, "lat": 55.946233}]}
+            """;
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private IlpRestClient client(int maxAttempts, int circuitFailureThreshold) {
+        return new IlpRestClient(new IlpRestClient.Settings(baseUrl,
+                Duration.ofSeconds(1), Duration.ofMillis(500), 4, maxAttempts,
+                Duration.ofMillis(5), circuitFailureThreshold, Duration.ofMinutes(1)), Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    public void testGet_ParsesResponse() {
+        server.createContext("/restaurants", exchange -> respond(exchange, 200, RESTAURANTS));
+        server.createContext("/centralArea", exchange -> respond(exchange, 200, CENTRAL_AREA));
+        IlpRestClient client = client(1, 5);
+
+        Restaurant[] restaurants = client.get("/restaurants", Restaurant[].class);
+        assertEquals(1, restaurants.length);
+        assertEquals("Civerinos Slice", restaurants[0].name());
+        assertEquals(DayOfWeek.MONDAY, restaurants[0].openingDays()[0]);
+        assertEquals(1400, restaurants[0].menu()[1].priceInPence());
+
+        NamedRegion centralArea = client.get("/centralArea", NamedRegion.class);
+        assertEquals("central", centralArea.name());
+        assertEquals(4, centralArea.vertices().length);
+    }
+
+    @Test
+    public void testGet_RetriesServerErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        server.createContext("/centralArea", exchange -> {
+            if (calls.incrementAndGet() < 3) {
+                respond(exchange, 503, "");
+            } else {
+                respond(exchange, 200, CENTRAL_AREA);
+            }
+        });
+
+        NamedRegion centralArea = client(3, 5).get("/centralArea", NamedRegion.class);
+
+        assertEquals("central", centralArea.name());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testGet_DoesNotRetryClientErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        server.createContext("/noFlyZones", exchange -> {
+            calls.incrementAndGet();
+            respond(exchange, 404, "");
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> client(3, 5).get("/noFlyZones", NamedRegion[].class));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testGet_TimesOutSlowResponses() {
+        server.createContext("/restaurants", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, RESTAURANTS);
+        });
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> client(1, 5).get("/restaurants", Restaurant[].class));
+        assertEquals("Failed to fetch data from REST service: /restaurants", ex.getMessage());
+    }
+
+    @Test
+    public void testGet_TimesCallsPerEndpointAndOutcome() {
+        server.createContext("/restaurants", exchange -> respond(exchange, 200, RESTAURANTS));
+        server.createContext("/noFlyZones", exchange -> respond(exchange, 404, ""));
+        IlpRestClient client = client(1, 5);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        client.bindTo(registry);
+
+        client.get("/restaurants", Restaurant[].class);
+        client.get("/restaurants", Restaurant[].class);
+        assertThrows(IllegalArgumentException.class, () -> client.get("/noFlyZones", NamedRegion[].class));
+
+        assertEquals(2, registry.get("pizzadronz.upstream.requests").tags("endpoint", "/restaurants", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("pizzadronz.upstream.requests").tags("endpoint", "/noFlyZones", "outcome", "error").timer().count());
+        assertEquals(0, registry.get("pizzadronz.upstream.circuit.open").gauge().value());
+    }
+
+    @Test
+    public void testGet_CircuitOpensAfterRepeatedFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        server.createContext("/restaurants", exchange -> {
+            calls.incrementAndGet();
+            respond(exchange, 500, "");
+        });
+        IlpRestClient client = client(1, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> client.get("/restaurants", Restaurant[].class));
+        assertThrows(IllegalArgumentException.class, () -> client.get("/restaurants", Restaurant[].class));
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> client.get("/restaurants", Restaurant[].class));
+        assertTrue(ex.getMessage().contains("circuit open"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCircuitBreaker_HalfOpenTrialClosesCircuit() {
+        long[] now = { 0 };
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(10), () -> now[0]);
+
+        breaker.recordFailure();
+        assertFalse(breaker.tryAcquire());
+
+        now[0] = Duration.ofSeconds(10).toNanos();
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,113 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.geometry.PreparedRegion;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LngLatHandlerTest {
+
+    private static final LngLat[] CENTRAL_VERTICES = {
+            new LngLat(-3.192473, 55.946233),
+            new LngLat(-3.192473, 55.942617),
+            new LngLat(-3.184319, 55.942617),
+            new LngLat(-3.184319, 55.946233)
+    };
+
+    private final LngLatHandler handler = new LngLatHandler();
+
+    @Test
+    public void testIsAxisAlignedRectangle_CentralRegionVertexOrder() {
+        assertTrue(LngLatHandler.isAxisAlignedRectangle(CENTRAL_VERTICES));
+        assertTrue(LngLatHandler.isAxisAlignedRectangle(new LngLat[]{
+                CENTRAL_VERTICES[0], CENTRAL_VERTICES[1], CENTRAL_VERTICES[2], CENTRAL_VERTICES[3], CENTRAL_VERTICES[0]
+        }));
+
+        // same corners in a different order, and a parallelogram
+        assertFalse(LngLatHandler.isAxisAlignedRectangle(new LngLat[]{
+                CENTRAL_VERTICES[1], CENTRAL_VERTICES[2], CENTRAL_VERTICES[3], CENTRAL_VERTICES[0]
+        }));
+        assertFalse(LngLatHandler.isAxisAlignedRectangle(new LngLat[]{
+                new LngLat(0, 1), new LngLat(0, 0), new LngLat(1, 0.1), new LngLat(1, 1)
+        }));
+        assertFalse(LngLatHandler.isAxisAlignedRectangle(new LngLat[]{ new LngLat(0, 1), new LngLat(0, 0), new LngLat(1, 0) }));
+    }
+
+    @Test
+    public void testIsInCentralArea_FastPathMatchesPolygonTest() {
+        NamedRegion central = new NamedRegion(SystemConstants.CENTRAL_REGION_NAME, CENTRAL_VERTICES);
+        PreparedRegion prepared = PreparedRegion.of(central);
+
+        for (double lng = -3.1930; lng <= -3.1838; lng += 0.0002) {
+            for (double lat = 55.9422; lat <= 55.9468; lat += 0.0001) {
+                LngLat point = new LngLat(lng, lat);
+                assertEquals(prepared.contains(point), handler.isInCentralArea(point, central), "at " + point);
+            }
+        }
+        assertTrue(handler.isInCentralArea(CENTRAL_VERTICES[2], central));
+    }
+
+    @Test
+    public void testIsInCentralArea_RejectsOtherRegions() {
+        NamedRegion other = new NamedRegion("george square", CENTRAL_VERTICES);
+
+        assertThrows(IllegalArgumentException.class, () -> handler.isInCentralArea(CENTRAL_VERTICES[0], other));
+        assertThrows(IllegalArgumentException.class, () -> handler.isInCentralArea(CENTRAL_VERTICES[0], null));
+    }
+
+    @Test
+    public void testIsInRegion_GeneralPolygon() {
+        NamedRegion triangle = new NamedRegion("triangle", new LngLat[]{ new LngLat(0, 0), new LngLat(2, 0), new LngLat(0, 2) });
+
+        assertTrue(handler.isInRegion(new LngLat(0.5, 0.5), triangle));
+        assertTrue(handler.isInRegion(new LngLat(1, 1), triangle));
+        assertFalse(handler.isInRegion(new LngLat(1.5, 1.5), triangle));
+    }
+
+    @Test
+    public void testNextPositionAndIsCloseTo() {
+        LngLat start = new LngLat(-3.19, 55.944);
+        LngLat north = handler.nextPosition(start, 90);
+
+        assertEquals(SystemConstants.DRONE_MOVE_DISTANCE, handler.distanceTo(start, north), 1e-12);
+        assertEquals(start.lng(), north.lng(), 1e-12);
+        assertTrue(handler.isCloseTo(start, new LngLat(start.lng() + 0.0001, start.lat())));
+        assertFalse(handler.isCloseTo(start, handler.nextPosition(north, 90)));
+    }
+
+    @Test
+    public void testNextPosition_CompassTableMatchesTrigonometry() {
+        LngLat start = new LngLat(-3.19, 55.944);
+        for (int direction = 0; direction < LngLatHandler.COMPASS_DIRECTIONS; direction++) {
+            double angle = direction * 22.5;
+            double radians = Math.toRadians(angle);
+            LngLat next = handler.nextPosition(start, angle);
+
+            assertEquals(direction, LngLatHandler.compassDirection(angle));
+            assertEquals(start.lng() + SystemConstants.DRONE_MOVE_DISTANCE * Math.cos(radians), next.lng(), 0);
+            assertEquals(start.lat() + SystemConstants.DRONE_MOVE_DISTANCE * Math.sin(radians), next.lat(), 0);
+        }
+
+        // any other angle is still moved along exactly
+        assertEquals(-1, LngLatHandler.compassDirection(10));
+        assertEquals(-1, LngLatHandler.compassDirection(360));
+        assertEquals(-1, LngLatHandler.compassDirection(-22.5));
+        assertEquals(SystemConstants.DRONE_MOVE_DISTANCE, handler.distanceTo(start, handler.nextPosition(start, 10)), 1e-12);
+    }
+
+    @Test
+    public void testIsCloseTo_PrimitiveOverloadMatches() {
+        double lng = -3.19;
+        double lat = 55.944;
+
+        assertEquals(0.0001 * 0.0001 + 0.0002 * 0.0002, LngLatHandler.distanceSquared(lng, lat, lng + 0.0001, lat - 0.0002), 1e-18);
+        assertTrue(LngLatHandler.isCloseTo(lng, lat, lng + 0.0001, lat + 0.0001));
+        assertFalse(LngLatHandler.isCloseTo(lng, lat, lng + 0.0002, lat));
+        assertEquals(handler.isCloseTo(new LngLat(lng, lat), new LngLat(lng, lat + 0.00014)),
+                LngLatHandler.isCloseTo(lng, lat, lng, lat + 0.00014));
+    }
+}
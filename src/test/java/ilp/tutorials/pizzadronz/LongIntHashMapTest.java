@@ -0,0 +1,60 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.planning.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void testPutAndGet_OverwritesAndReportsMissing() {
+        LongIntHashMap map = new LongIntHashMap(4);
+
+        assertEquals(-1, map.get(42, -1));
+        map.put(42, 7);
+        map.put(-42, 8);
+        map.put(42, 9);
+
+        assertEquals(9, map.get(42, -1));
+        assertEquals(8, map.get(-42, -1));
+        assertEquals(-1, map.get(0, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testPut_GrowsAndMatchesHashMap() {
+        LongIntHashMap map = new LongIntHashMap(8);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+
+        for (int i = 0; i < 50_000; i++) {
+            // neighbouring cells as produced by the planner, plus some spread out keys
+            long key = (i % 2 == 0) ? ((long) (i % 300) << 32) | (i / 300) : random.nextLong();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey(), -1));
+        }
+    }
+
+    @Test
+    public void testPut_MinValueKey() {
+        LongIntHashMap map = new LongIntHashMap(8);
+
+        assertEquals(-1, map.get(Long.MIN_VALUE, -1));
+        map.put(Long.MIN_VALUE, 3);
+        map.put(0, 4);
+
+        assertEquals(3, map.get(Long.MIN_VALUE, -1));
+        assertEquals(4, map.get(0, -1));
+        assertEquals(2, map.size());
+    }
+}
@@ -0,0 +1,174 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.services.CardValidator;
+import ilp.tutorials.pizzadronz.services.MenuIndex;
+import ilp.tutorials.pizzadronz.services.OrderValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
+import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
+import uk.ac.ed.inf.ilp.data.*;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderValidatorTest {
+
+    private static final Restaurant CIVERINOS = new Restaurant("Civerinos Slice", new LngLat(-3.1912869215011597, 55.945535152517735),
+            DayOfWeek.values(), new Pizza[]{ new Pizza("R1: Margarita", 1000), new Pizza("R1: Calzone", 1400) });
+    private static final Restaurant SORA_LELLA = new Restaurant("Sora Lella Vegan Restaurant", new LngLat(-3.202541470527649, 55.943284737579376),
+            DayOfWeek.values(), new Pizza[]{ new Pizza("R2: Meat Lover", 1400) });
+    private static final Restaurant DOMINOS = new Restaurant("Domino's", new LngLat(-3.1838572025299072, 55.94449876875712),
+            new DayOfWeek[]{ DayOfWeek.MONDAY, DayOfWeek.TUESDAY }, new Pizza[]{ new Pizza("R3: Super Cheese", 1400) });
+    private static final MenuIndex MENU_INDEX = MenuIndex.of(List.of(CIVERINOS, SORA_LELLA, DOMINOS));
+
+    private final OrderValidator validator = new OrderValidator(
+            new CardValidator(new MutableClock(Instant.parse("2026-01-15T12:00:00Z")), false));
+
+    private static Order order(CreditCardInformation card, Pizza... pizzas) {
+        int total = 100;
+        for (Pizza pizza : pizzas) {
+            total += (pizza == null) ? 0 : pizza.priceInPence();
+        }
+        return new Order("ORDER1", LocalDate.of(2026, 1, 15), total, pizzas, card);
+    }
+
+    private static CreditCardInformation validCard() {
+        return new CreditCardInformation("4485959141852684", "10/26", "816");
+    }
+
+    @Test
+    public void testValidate_ValidOrder() {
+        assertEquals(OrderValidationCode.NO_ERROR, validator.validate(order(validCard(), new Pizza("R1: Margarita", 1000)), MENU_INDEX));
+    }
+
+    @Test
+    public void testValidate_EachRuleRejects() {
+        Pizza margarita = new Pizza("R1: Margarita", 1000);
+
+        assertEquals(OrderValidationCode.EMPTY_ORDER, validator.validate(null, MENU_INDEX));
+        assertEquals(OrderValidationCode.EMPTY_ORDER, validator.validate(order(validCard()), MENU_INDEX));
+        assertEquals(OrderValidationCode.MAX_PIZZA_COUNT_EXCEEDED,
+                validator.validate(order(validCard(), margarita, margarita, margarita, margarita, margarita), MENU_INDEX));
+
+        Order wrongTotal = order(validCard(), margarita);
+        wrongTotal.setPriceTotalInPence(1000);
+        assertEquals(OrderValidationCode.TOTAL_INCORRECT, validator.validate(wrongTotal, MENU_INDEX));
+
+        assertEquals(OrderValidationCode.CARD_NUMBER_INVALID, validator.validate(order(null, margarita), MENU_INDEX));
+        assertEquals(OrderValidationCode.CARD_NUMBER_INVALID,
+                validator.validate(order(new CreditCardInformation("1234", "10/26", "816"), margarita), MENU_INDEX));
+        assertEquals(OrderValidationCode.EXPIRY_DATE_INVALID,
+                validator.validate(order(new CreditCardInformation("4485959141852684", "12/25", "816"), margarita), MENU_INDEX));
+        assertEquals(OrderValidationCode.CVV_INVALID,
+                validator.validate(order(new CreditCardInformation("4485959141852684", "10/26", "81"), margarita), MENU_INDEX));
+
+        assertEquals(OrderValidationCode.PIZZA_NOT_DEFINED, validator.validate(order(validCard(), new Pizza("Pineapple", 1000)), MENU_INDEX));
+        assertEquals(OrderValidationCode.PIZZA_NOT_DEFINED, validator.validate(order(validCard(), margarita, null), MENU_INDEX));
+        assertEquals(OrderValidationCode.PIZZA_FROM_MULTIPLE_RESTAURANTS,
+                validator.validate(order(validCard(), margarita, new Pizza("R2: Meat Lover", 1400)), MENU_INDEX));
+    }
+
+    @Test
+    public void testValidate_PriceMustMatchTheMenu() {
+        Order order = order(validCard(), new Pizza("R1: Margarita", 900));
+
+        assertEquals(OrderValidationCode.PRICE_FOR_PIZZA_INVALID, validator.validate(order, MENU_INDEX));
+    }
+
+    @Test
+    public void testValidate_RestaurantMustBeOpenOnTheOrderDate() {
+        // 2026-01-15 is a Thursday, 2026-01-12 a Monday
+        Order closed = order(validCard(), new Pizza("R3: Super Cheese", 1400));
+        assertEquals(OrderValidationCode.RESTAURANT_CLOSED, validator.validate(closed, MENU_INDEX));
+
+        Order open = order(validCard(), new Pizza("R3: Super Cheese", 1400));
+        open.setOrderDate(LocalDate.of(2026, 1, 12));
+        assertEquals(OrderValidationCode.NO_ERROR, validator.validate(open, MENU_INDEX));
+
+        Order undated = order(validCard(), new Pizza("R3: Super Cheese", 1400));
+        undated.setOrderDate(null);
+        assertEquals(OrderValidationCode.NO_ERROR, validator.validate(undated, MENU_INDEX));
+        undated.setOrderDate(LocalDate.MIN);
+        assertEquals(OrderValidationCode.NO_ERROR, validator.validate(undated, MENU_INDEX));
+    }
+
+    @Test
+    public void testValidate_FirstFailingRuleWins() {
+        // wrong total, invalid card and undefined pizza: the total is checked first
+        Order order = order(new CreditCardInformation("1234", "13/99", "1"), new Pizza("Pineapple", 1000));
+        order.setPriceTotalInPence(1);
+
+        assertEquals(OrderValidationCode.TOTAL_INCORRECT, validator.validate(order, MENU_INDEX));
+    }
+
+    @Test
+    public void testStats_CountsEvaluationsAndRejections() {
+        validator.validate(order(validCard(), new Pizza("R1: Margarita", 1000)), MENU_INDEX);
+        validator.validate(order(null, new Pizza("R1: Margarita", 1000)), MENU_INDEX);
+        validator.validate(order(validCard()), MENU_INDEX);
+
+        OrderValidator.Stats stats = validator.stats();
+        assertEquals(3, stats.validations());
+        assertEquals(List.of("pizzaCount", "total", "cardNumber", "expiry", "cvv", "menu"),
+                stats.rules().stream().map(OrderValidator.RuleStats::name).toList());
+
+        OrderValidator.RuleStats pizzaCount = stats.rules().get(0);
+        assertEquals(3, pizzaCount.evaluations());
+        assertEquals(1, pizzaCount.rejections());
+
+        OrderValidator.RuleStats cardNumber = stats.rules().get(2);
+        assertEquals(2, cardNumber.evaluations());
+        assertEquals(1, cardNumber.rejections());
+
+        OrderValidator.RuleStats menu = stats.rules().get(5);
+        assertEquals(1, menu.evaluations());
+        assertEquals(0, menu.rejections());
+        assertTrue(menu.totalNanos() >= 0);
+    }
+
+    @Test
+    public void testStats_TimeIsExtrapolatedFromTimedOrders() {
+        int orders = 100 * OrderValidator.TIMING_SAMPLE;
+        for (int i = 0; i < orders; i++) {
+            validator.validate(order(validCard(), new Pizza("R1: Margarita", 1000)), MENU_INDEX);
+        }
+
+        // every order is counted, but only about one in TIMING_SAMPLE reads the clock
+        OrderValidator.RuleStats menu = validator.stats().rules().get(5);
+        assertEquals(orders, menu.evaluations());
+        assertEquals(Math.round(menu.averageNanos() * orders), menu.totalNanos());
+    }
+
+    @Test
+    public void testBindTo_PublishesCodeAndRuleCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        validator.bindTo(registry);
+
+        validator.validate(order(validCard(), new Pizza("R1: Margarita", 1000)), MENU_INDEX);
+        validator.validate(order(validCard(), new Pizza("R1: Margarita", 1000)), MENU_INDEX);
+        validator.validate(order(null, new Pizza("R1: Margarita", 1000)), MENU_INDEX);
+
+        assertEquals(2, registry.get("pizzadronz.validation.orders").tag("code", "NO_ERROR").functionCounter().count());
+        assertEquals(1, registry.get("pizzadronz.validation.orders").tag("code", "CARD_NUMBER_INVALID").functionCounter().count());
+        assertEquals(0, registry.get("pizzadronz.validation.orders").tag("code", "RESTAURANT_CLOSED").functionCounter().count());
+        assertEquals(2, registry.get("pizzadronz.validation.rule").tag("rule", "menu").functionTimer().count());
+        assertEquals(1, registry.get("pizzadronz.validation.rule.rejections").tag("rule", "cardNumber").functionCounter().count());
+        assertEquals(2L, validator.stats().codes().get(OrderValidationCode.NO_ERROR));
+    }
+
+    @Test
+    public void testValidateOrder_SetsStatusAndCode() {
+        Order valid = validator.validateOrder(order(validCard(), new Pizza("R1: Margarita", 1000)), new Restaurant[]{ CIVERINOS });
+        assertEquals(OrderStatus.VALID, valid.getOrderStatus());
+        assertEquals(OrderValidationCode.NO_ERROR, valid.getOrderValidationCode());
+
+        Order invalid = validator.validateOrder(order(validCard(), new Pizza("R2: Meat Lover", 1400)), new Restaurant[]{ CIVERINOS });
+        assertEquals(OrderStatus.INVALID, invalid.getOrderStatus());
+        assertEquals(OrderValidationCode.PIZZA_NOT_DEFINED, invalid.getOrderValidationCode());
+    }
+}
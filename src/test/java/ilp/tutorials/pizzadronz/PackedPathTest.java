@@ -0,0 +1,74 @@
+package ilp.tutorials.pizzadronz;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedPathTest {
+
+    private static final List<LngLat> POSITIONS = List.of(
+            new LngLat(-3.1912869215011597, 55.945535152517735),
+            new LngLat(-3.1911369215011597, 55.945535152517735),
+            new LngLat(-3.1910069215011597, 55.94561015251773),
+            new LngLat(-3.1908569215011597, 55.94561015251773));
+
+    @Test
+    public void testCopyOf_IsAnEqualListView() {
+        PackedPath path = PackedPath.copyOf(POSITIONS);
+
+        assertEquals(POSITIONS, path);
+        assertEquals(POSITIONS.hashCode(), path.hashCode());
+        assertEquals(4, path.size());
+        assertEquals(POSITIONS.get(2).lng(), path.lng(2));
+        assertEquals(POSITIONS.get(2).lat(), path.lat(2));
+        assertSame(path, PackedPath.copyOf(path));
+        assertThrows(IndexOutOfBoundsException.class, () -> path.lng(4));
+    }
+
+    @Test
+    public void testCopyOf_IsUnmodifiable() {
+        PackedPath path = PackedPath.copyOf(POSITIONS);
+
+        assertThrows(UnsupportedOperationException.class, () -> path.add(POSITIONS.get(0)));
+        assertThrows(UnsupportedOperationException.class, () -> path.set(0, POSITIONS.get(1)));
+        assertThrows(UnsupportedOperationException.class, () -> path.remove(0));
+    }
+
+    @Test
+    public void testSubList_SharesArrays() {
+        PackedPath path = PackedPath.copyOf(POSITIONS);
+
+        PackedPath middle = path.subList(1, 3);
+        assertEquals(POSITIONS.subList(1, 3), middle);
+        assertEquals(POSITIONS.get(1).lng(), middle.lng(0));
+        assertEquals(path.estimatedBytes(), middle.estimatedBytes());
+        assertEquals(List.of(POSITIONS.get(2)), middle.subList(1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> path.subList(2, 5));
+    }
+
+    @Test
+    public void testForEachPosition_VisitsInOrder() {
+        List<LngLat> visited = new ArrayList<>();
+
+        PackedPath.copyOf(POSITIONS).subList(1, 4).forEachPosition((lng, lat) -> visited.add(new LngLat(lng, lat)));
+
+        assertEquals(POSITIONS.subList(1, 4), visited);
+    }
+
+    @Test
+    public void testJackson_SameJsonAsListOfLngLat() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals(objectMapper.writeValueAsString(new ArrayList<>(POSITIONS)),
+                objectMapper.writeValueAsString(PackedPath.copyOf(POSITIONS)));
+        assertEquals(objectMapper.writeValueAsString(POSITIONS.subList(1, 3)),
+                objectMapper.writeValueAsString(PackedPath.copyOf(POSITIONS).subList(1, 3)));
+        assertEquals("[]", objectMapper.writeValueAsString(PackedPath.copyOf(List.of())));
+    }
+}
@@ -1,13 +1,32 @@
 package ilp.tutorials.pizzadronz;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest
 class PizzaDronzApplicationTests {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void metersAreBound() {
+        assertNotNull(meterRegistry.find("pizzadronz.validation.orders").tag("code", "NO_ERROR").functionCounter());
+        assertNotNull(meterRegistry.find("pizzadronz.validation.rule").tag("rule", "menu").functionTimer());
+        assertNotNull(meterRegistry.find("pizzadronz.planner.expansions").summary());
+        assertNotNull(meterRegistry.find("pizzadronz.path.moves").summary());
+        assertNotNull(meterRegistry.find("pizzadronz.planner.field.paths").tag("outcome", "fallback").functionCounter());
+        assertNotNull(meterRegistry.find("pizzadronz.upstream.circuit.open").gauge());
+        assertNotNull(meterRegistry.find("pizzadronz.route.cache.hits").functionCounter());
+        assertNotNull(meterRegistry.find("pizzadronz.reference.data.refreshes").functionCounter());
+    }
+
 }
@@ -1,15 +1,51 @@
 package ilp.tutorials.pizzadronz;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.ac.ed.inf.ilp.constant.OrderStatus;
 import uk.ac.ed.inf.ilp.constant.OrderValidationCode;
 import uk.ac.ed.inf.ilp.constant.SystemConstants;
 import uk.ac.ed.inf.ilp.data.*;
 import ilp.tutorials.pizzadronz.controllers.PizzaDronzController;
-
+import ilp.tutorials.pizzadronz.controllers.PositionPairRequest;
+import ilp.tutorials.pizzadronz.controllers.RegionRequest;
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.planning.CostToGoFields;
+import ilp.tutorials.pizzadronz.planning.DeliveryPlanner;
+import ilp.tutorials.pizzadronz.planning.FleetScheduler;
+import ilp.tutorials.pizzadronz.planning.RoundTrip;
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import ilp.tutorials.pizzadronz.services.CardValidator;
+import ilp.tutorials.pizzadronz.services.OrderBatchValidator;
+import ilp.tutorials.pizzadronz.services.OrderValidator;
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import ilp.tutorials.pizzadronz.services.ReferenceDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -17,11 +53,39 @@ import static org.mockito.Mockito.*;
 
 public class PizzaDronzControllerTest {
 
+    private static final NamedRegion CENTRAL_AREA = new NamedRegion(SystemConstants.CENTRAL_REGION_NAME, new LngLat[]{
+            new LngLat(-3.192473, 55.946233),
+            new LngLat(-3.192473, 55.942617),
+            new LngLat(-3.184319, 55.942617),
+            new LngLat(-3.184319, 55.946233)
+    });
+
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
     private PizzaDronzController controller;
 
     @BeforeEach
     public void setUp() {
-        controller = new PizzaDronzController();
+        Restaurant civerinos = new Restaurant("Civerinos Slice",
+                new LngLat(-3.1912869215011597, 55.945535152517735),
+                DayOfWeek.values(),
+                new Pizza[]{ new Pizza("R1: Margarita", 1000), new Pizza("R1: Calzone", 1400) });
+        controller = controllerFor(stubSource(civerinos));
+    }
+
+    private ReferenceDataSource stubSource(Restaurant... restaurants) {
+        ReferenceDataSource source = mock(ReferenceDataSource.class);
+        when(source.fetchRestaurants()).thenReturn(restaurants);
+        when(source.fetchNoFlyZones()).thenReturn(new NamedRegion[0]);
+        when(source.fetchCentralArea()).thenReturn(CENTRAL_AREA);
+        return source;
+    }
+
+    private PizzaDronzController controllerFor(ReferenceDataSource source) {
+        ReferenceDataService referenceDataService = new ReferenceDataService(source, Duration.ofMinutes(5), Clock.systemUTC());
+        RouteCache routeCache = new RouteCache(referenceDataService, 64);
+        return new PizzaDronzController(referenceDataService, new DeliveryPlanner(new RoutePlanner(250_000), routeCache,
+                new CostToGoFields(referenceDataService, true)), routeCache, new LngLatHandler(), new OrderBatchValidator(OBJECT_MAPPER, 4, 8), new OrderValidator(new CardValidator(false)));
     }
 
     private Order makeValidOrder() {
@@ -34,7 +98,6 @@ public class PizzaDronzControllerTest {
     }
 
     private PizzaDronzController controllerWithStubbedRestaurants() {
-        PizzaDronzController spy = Mockito.spy(controller);
 
         Restaurant r1 = mock(Restaurant.class);
         when(r1.name()).thenReturn("Rest1");
@@ -52,10 +115,7 @@ public class PizzaDronzControllerTest {
                 new Pizza("R4: Pineapple & Ham & Cheese", 900)
         });
 
-        doReturn(new Restaurant[]{ r1, r4 })
-                .when(spy).fetchAndParse(eq("/restaurants"), eq(Restaurant[].class));
-
-        return spy;
+        return Mockito.spy(controllerFor(stubSource(r1, r4)));
     }
 
     private void setTotalToSumPlusCharge(Order o) {
@@ -67,6 +127,39 @@ public class PizzaDronzControllerTest {
     }
 
 
+    @Test
+    public void testDistanceTo_TypedRequest() throws IOException {
+        PositionPairRequest request = OBJECT_MAPPER.readValue(
+                "{\"position1\":{\"lng\":-3.192473,\"lat\":55.946233},\"position2\":{\"lng\":-3.192473,\"lat\":55.942617}}",
+                PositionPairRequest.class);
+
+        ResponseEntity<?> response = controller.distanceTo(request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(0.003616, (Double) response.getBody(), 1e-9);
+    }
+
+    @Test
+    public void testDistanceTo_MissingOrIncompletePosition() {
+        ResponseEntity<?> response = controller.distanceTo(new PositionPairRequest(new LngLat(-3.19, 55.94), null));
+        assertEquals(400, response.getStatusCodeValue());
+
+        // a position without a latitude cannot be bound at all
+        assertThrows(IOException.class, () -> OBJECT_MAPPER.readValue(
+                "{\"position1\":{\"lng\":-3.19},\"position2\":{\"lng\":-3.19,\"lat\":55.94}}", PositionPairRequest.class));
+    }
+
+    @Test
+    public void testIsInRegion_TypedRequest() throws IOException {
+        RegionRequest request = OBJECT_MAPPER.readValue("{\"position\":{\"lng\":0.5,\"lat\":0.5},\"region\":{\"name\":\"square\",\"vertices\":["
+                + "{\"lng\":0,\"lat\":0},{\"lng\":1,\"lat\":0},{\"lng\":1,\"lat\":1},{\"lng\":0,\"lat\":1}]}}", RegionRequest.class);
+        assertEquals(true, controller.isInRegion(request).getBody());
+
+        RegionRequest line = new RegionRequest(new LngLat(0.5, 0.5), new NamedRegion("line", new LngLat[]{ new LngLat(0, 0), new LngLat(1, 1) }));
+        assertEquals(400, controller.isInRegion(line).getStatusCodeValue());
+        assertEquals(400, controller.isInRegion(new RegionRequest(new LngLat(0.5, 0.5), null)).getStatusCodeValue());
+    }
+
     @Test
     public void testValidateOrder_ValidOrder() {
         Order validOrder = makeValidOrder();
@@ -147,7 +240,7 @@ public class PizzaDronzControllerTest {
         doReturn(List.of(
                 new LngLat(-3.1912869215011597, 55.945535152517735),
                 new LngLat(-3.1878, 55.9445)
-        )).when(spyController).calculatePath(validOrder);
+        )).when(spyController).calculatePath(eq(validOrder), any(ReferenceData.class));
 
         ResponseEntity<?> response = spyController.calcDeliveryPath(validOrder);
 
@@ -174,16 +267,31 @@ public class PizzaDronzControllerTest {
         }
     }
 
+    @Test
+    public void testCalcDeliveryPath_NoPathIsBadRequest() {
+        Order validOrder = makeValidOrder();
+        PizzaDronzController spyController = Mockito.spy(controller);
+        doThrow(new IllegalArgumentException("No path found")).when(spyController).calculatePath(eq(validOrder), any(ReferenceData.class));
+
+        ResponseEntity<?> response = spyController.calcDeliveryPath(validOrder);
+        ResponseEntity<?> geoJson = spyController.calcDeliveryPathAsGeoJson(validOrder);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("No path found", response.getBody());
+        assertEquals(400, geoJson.getStatusCodeValue());
+        assertEquals("No path found", geoJson.getBody());
+    }
+
     @Test
     public void testCalcDeliveryPath_APIError() {
         Order validOrder = makeValidOrder();
 
-        PizzaDronzController spyController = Mockito.spy(controller);
-        doThrow(new IllegalArgumentException("Failed to fetch restaurant data"))
-                .when(spyController).fetchAndParse(anyString(), eq(Restaurant[].class));
+        ReferenceDataSource failingSource = stubSource();
+        when(failingSource.fetchRestaurants()).thenThrow(new IllegalArgumentException("Failed to fetch restaurant data"));
+        PizzaDronzController failingController = controllerFor(failingSource);
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
-            spyController.calcDeliveryPath(validOrder);
+            failingController.calcDeliveryPath(validOrder);
         });
 
         assertEquals("Failed to fetch restaurant data", ex.getMessage());
@@ -297,6 +405,19 @@ public class PizzaDronzControllerTest {
         assertEquals(OrderValidationCode.PIZZA_FROM_MULTIPLE_RESTAURANTS, returned.getOrderValidationCode());
     }
 
+    @Test
+    public void testCalcDeliveryPath_UndefinedPizza_ReturnsOrderWithCode() {
+        Order invalidOrder = makeValidOrder();
+        invalidOrder.setPizzasInOrder(new Pizza[]{ new Pizza("R99: GhostPizza", 1000) });
+
+        ResponseEntity<?> response = controller.calcDeliveryPath(invalidOrder);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertTrue(response.getBody() instanceof Order);
+        Order returned = (Order) response.getBody();
+        assertEquals(OrderValidationCode.PIZZA_NOT_DEFINED, returned.getOrderValidationCode());
+    }
+
     @Test
     public void testCalcDeliveryPath_InvalidOrder_ReturnsOrderWithCode() {
         Order invalidOrder = new Order();
@@ -319,7 +440,7 @@ public class PizzaDronzControllerTest {
         doReturn(List.of(
                 new LngLat(-3.1912869215011597, 55.945535152517735),
                 new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT)
-        )).when(spy).calculatePath(any(Order.class));
+        )).when(spy).calculatePath(any(Order.class), any(ReferenceData.class));
 
         ResponseEntity<?> response = spy.calcDeliveryPath(validOrder);
 
@@ -327,4 +448,259 @@ public class PizzaDronzControllerTest {
         assertNotNull(response.getBody());
         assertTrue(response.getBody() instanceof List<?>);
     }
+
+    @Test
+    public void testCalcDeliveryPath_PlansAgainstTheValidatedSnapshot() {
+        Restaurant civerinos = new Restaurant("Civerinos Slice",
+                new LngLat(-3.1912869215011597, 55.945535152517735),
+                DayOfWeek.values(),
+                new Pizza[]{ new Pizza("R1: Margarita", 1000), new Pizza("R1: Calzone", 1400) });
+        ReferenceData validated = ReferenceData.of(new Restaurant[]{ civerinos }, new NamedRegion[0], CENTRAL_AREA, Instant.now());
+        // a refresh right after validation drops the restaurant
+        ReferenceData refreshed = ReferenceData.of(new Restaurant[0], new NamedRegion[0], CENTRAL_AREA, Instant.now());
+        ReferenceDataService referenceDataService = mock(ReferenceDataService.class);
+        when(referenceDataService.snapshot()).thenReturn(validated, refreshed);
+        RouteCache routeCache = new RouteCache(64);
+        PizzaDronzController refreshingController = new PizzaDronzController(referenceDataService,
+                new DeliveryPlanner(new RoutePlanner(250_000), routeCache, new CostToGoFields(true)), routeCache,
+                new LngLatHandler(), new OrderBatchValidator(OBJECT_MAPPER, 4, 8), new OrderValidator(new CardValidator(false)));
+
+        ResponseEntity<?> response = refreshingController.calcDeliveryPath(makeValidOrder());
+
+        assertEquals(200, response.getStatusCodeValue());
+        List<?> path = assertInstanceOf(List.class, response.getBody());
+        assertEquals(civerinos.location(), path.get(0));
+        verify(referenceDataService, times(1)).snapshot();
+    }
+
+    @Test
+    public void testCalcRoundTrip_ValidOrder_ReusesDeliveryPath() {
+        Order validOrder = makeValidOrder();
+
+        ResponseEntity<?> response = controller.calcRoundTrip(validOrder);
+
+        assertEquals(200, response.getStatusCodeValue());
+        RoundTrip trip = assertInstanceOf(RoundTrip.class, response.getBody());
+        List<LngLat> delivery = controller.calculatePath(validOrder);
+        assertEquals(2 * delivery.size(), trip.moves());
+        assertEquals(delivery.get(0), trip.path().get(trip.pickup()));
+        assertEquals(delivery, trip.path().subList(trip.pickup(), trip.dropOff()));
+        assertEquals(trip.path().get(trip.dropOff() - 1), trip.path().get(trip.dropOff()));
+        // both legs come from one planned route
+        assertEquals(1, controller.routeCacheStats().misses());
+    }
+
+    @Test
+    public void testCalcRoundTrip_InvalidOrder_ReturnsOrderWithCode() {
+        ResponseEntity<?> response = controller.calcRoundTrip(new Order());
+
+        assertEquals(200, response.getStatusCodeValue());
+        Order returned = assertInstanceOf(Order.class, response.getBody());
+        assertEquals(OrderValidationCode.EMPTY_ORDER, returned.getOrderValidationCode());
+    }
+
+    @Test
+    public void testPlanFleet_SharesTripsOfOneRestaurant() {
+        List<Order> orders = batchOrders(9);
+
+        ResponseEntity<?> response = controller.planFleet(orders, 2);
+
+        assertEquals(200, response.getStatusCodeValue());
+        FleetScheduler.FleetPlan plan = assertInstanceOf(FleetScheduler.FleetPlan.class, response.getBody());
+        // the three valid orders have one pizza each and fit on a single trip
+        assertEquals(3, plan.scheduledOrders());
+        assertEquals(6, plan.unscheduledOrders());
+        assertEquals(1, plan.trips().size());
+        assertEquals(List.of("ORDER0", "ORDER3", "ORDER6"), plan.trips().get(0).orderNos());
+        assertEquals(2 * plan.routes().get(0).size(), plan.makespan());
+        assertEquals(9, plan.orders().size());
+    }
+
+    @Test
+    public void testPlanFleet_NoDrones() {
+        ResponseEntity<?> response = controller.planFleet(batchOrders(3), 0);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Fleet needs at least one drone.", response.getBody());
+    }
+
+    @Test
+    public void testPlanFleet_TooManyDrones() {
+        ResponseEntity<?> response = controller.planFleet(batchOrders(3), 2_000_000_000);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Fleet can have at most " + FleetScheduler.MAX_DRONES + " drones.", response.getBody());
+        // rejected before any order is planned
+        assertEquals(0, controller.routeCacheStats().misses());
+    }
+
+    private String streamValidation(String body, MediaType expectedType) throws IOException {
+        ResponseEntity<StreamingResponseBody> response = controller.validateOrders(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(expectedType, response.getHeaders().getContentType());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<Order> batchOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = makeValidOrder();
+            order.setOrderNo("ORDER" + i);
+            switch (i % 3) {
+                case 1 -> order.setCreditCardInformation(new CreditCardInformation("123", "10/26", "816"));
+                case 2 -> order.setPizzasInOrder(new Pizza[]{ new Pizza("R9: Unknown", 1000) });
+                default -> { }
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static final OrderValidationCode[] BATCH_CODES = {
+            OrderValidationCode.NO_ERROR, OrderValidationCode.CARD_NUMBER_INVALID, OrderValidationCode.PIZZA_NOT_DEFINED
+    };
+
+    @Test
+    public void testValidateOrders_JsonArrayInInputOrder() throws IOException {
+        List<Order> orders = batchOrders(1000);
+
+        String response = streamValidation(OBJECT_MAPPER.writeValueAsString(orders), MediaType.APPLICATION_JSON);
+
+        OrderBatchValidator.OrderValidationResult[] results =
+                OBJECT_MAPPER.readValue(response, OrderBatchValidator.OrderValidationResult[].class);
+        assertEquals(orders.size(), results.length);
+        for (int i = 0; i < results.length; i++) {
+            assertEquals("ORDER" + i, results[i].orderNo());
+            assertEquals(BATCH_CODES[i % 3], results[i].orderValidationCode());
+        }
+        assertEquals(OrderStatus.VALID, results[0].orderStatus());
+        assertEquals(OrderStatus.INVALID, results[1].orderStatus());
+    }
+
+    @Test
+    public void testValidateOrders_NdjsonOneLinePerOrder() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (Order order : batchOrders(30)) {
+            body.append(OBJECT_MAPPER.writeValueAsString(order)).append('\n');
+        }
+
+        String[] lines = streamValidation(body.toString(), MediaType.APPLICATION_NDJSON).split("\n");
+
+        assertEquals(30, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            OrderBatchValidator.OrderValidationResult result =
+                    OBJECT_MAPPER.readValue(lines[i], OrderBatchValidator.OrderValidationResult.class);
+            assertEquals("ORDER" + i, result.orderNo());
+            assertEquals(BATCH_CODES[i % 3], result.orderValidationCode());
+        }
+    }
+
+    @Test
+    public void testValidateOrders_EmptyArray() throws IOException {
+        assertEquals("[]", streamValidation("[]", MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testValidateOrders_MalformedOrderEndsWithError() throws IOException {
+        List<Order> orders = batchOrders(3);
+        String first = OBJECT_MAPPER.writeValueAsString(orders.get(0));
+        String second = OBJECT_MAPPER.writeValueAsString(orders.get(1));
+
+        String[] lines = streamValidation(first + "\n" + second + "\n{\"orderNo\": \n" + first + "\n", MediaType.APPLICATION_NDJSON).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("ORDER1", OBJECT_MAPPER.readValue(lines[1], OrderBatchValidator.OrderValidationResult.class).orderNo());
+        OrderBatchValidator.BatchError error = OBJECT_MAPPER.readValue(lines[2], OrderBatchValidator.BatchError.class);
+        assertEquals(2, error.index());
+        assertNotNull(error.error());
+
+        // an array stays a valid JSON array, with the error as its last element
+        String response = streamValidation("[" + first + ", {\"pizzasInOrder\": 5}, " + second + "]", MediaType.APPLICATION_JSON);
+        List<?> results = OBJECT_MAPPER.readValue(response, List.class);
+        assertEquals(2, results.size());
+        assertEquals("ORDER0", ((Map<?, ?>) results.get(0)).get("orderNo"));
+        assertEquals(1, ((Map<?, ?>) results.get(1)).get("index"));
+    }
+
+    @Test
+    public void testValidateOrders_ResponseTypeFollowsBody() throws IOException {
+        String order = OBJECT_MAPPER.writeValueAsString(batchOrders(1).get(0));
+
+        // the Content-Type of the request is not consulted, an array is answered as JSON and anything else as NDJSON
+        assertTrue(streamValidation("  \n[" + order + "]", MediaType.APPLICATION_JSON).startsWith("[{"));
+        assertTrue(streamValidation(order + "\n", MediaType.APPLICATION_NDJSON).endsWith("}\n"));
+    }
+
+    @Test
+    public void testValidateOrders_StreamsResultsBeforeInputEnds() throws Exception {
+        List<Order> orders = batchOrders(2);
+        PipedOutputStream producer = new PipedOutputStream();
+        PipedInputStream body = new PipedInputStream(producer, 1 << 16);
+        producer.write((OBJECT_MAPPER.writeValueAsString(orders.get(0)) + "\n").getBytes(StandardCharsets.UTF_8));
+        producer.flush();
+
+        ResponseEntity<StreamingResponseBody> response = controller.validateOrders(body);
+        CountDownLatch firstResult = new CountDownLatch(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void flush() {
+                if (size() > 0) {
+                    firstResult.countDown();
+                }
+            }
+        };
+        CompletableFuture<Void> streaming = CompletableFuture.runAsync(() -> {
+            try {
+                response.getBody().writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // the first result arrives while the second order has not been sent yet
+        assertTrue(firstResult.await(5, TimeUnit.SECONDS));
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\n").length);
+
+        producer.write((OBJECT_MAPPER.writeValueAsString(orders.get(1)) + "\n").getBytes(StandardCharsets.UTF_8));
+        producer.close();
+        streaming.get(5, TimeUnit.SECONDS);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("ORDER1", OBJECT_MAPPER.readValue(lines[1], OrderBatchValidator.OrderValidationResult.class).orderNo());
+    }
+
+    @Test
+    public void testCalcDeliveryPaths_PlansEachRestaurantOnce() {
+        List<Order> orders = batchOrders(9);
+        Order emptyOrder = new Order();
+        emptyOrder.setOrderNo("EMPTY");
+        orders.add(emptyOrder);
+
+        DeliveryPlanner.BatchPlan plan = controller.calcDeliveryPaths(orders).getBody();
+
+        assertNotNull(plan);
+        assertEquals(1, plan.routes().size());
+        assertEquals(10, plan.orders().size());
+        assertTrue(plan.ordersPerSecond() > 0);
+        for (int i = 0; i < 9; i++) {
+            DeliveryPlanner.OrderRoute result = plan.orders().get(i);
+            assertEquals("ORDER" + i, result.orderNo());
+            assertEquals(BATCH_CODES[i % 3], result.orderValidationCode());
+            assertEquals(i % 3 == 0 ? 0 : -1, result.route());
+        }
+        assertEquals(OrderValidationCode.EMPTY_ORDER, plan.orders().get(9).orderValidationCode());
+        assertEquals(-1, plan.orders().get(9).route());
+
+        List<LngLat> route = plan.routes().get(0);
+        assertEquals(new LngLat(-3.1912869215011597, 55.945535152517735), route.get(0));
+        assertEquals(1, controller.routeCacheStats().misses());
+        // the route was read off the cost-to-go field, built once for the snapshot
+        assertTrue(controller.costToGoFieldStats().built());
+        assertEquals(1, controller.costToGoFieldStats().fieldPaths());
+        assertEquals(0, controller.costToGoFieldStats().fallbacks());
+    }
 }
@@ -0,0 +1,113 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.geometry.PreparedRegion;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PreparedRegionTest {
+
+    private static final List<LngLat> SQUARE = List.of(
+            new LngLat(0, 1),
+            new LngLat(0, 0),
+            new LngLat(1, 0),
+            new LngLat(1, 1));
+
+    // a U shape open to the north
+    private static final List<LngLat> U_SHAPE = List.of(
+            new LngLat(0, 0),
+            new LngLat(3, 0),
+            new LngLat(3, 3),
+            new LngLat(2, 3),
+            new LngLat(2, 1),
+            new LngLat(1, 1),
+            new LngLat(1, 3),
+            new LngLat(0, 3),
+            new LngLat(0, 0));
+
+    @Test
+    public void testContains_InsideAndOutside() {
+        PreparedRegion square = PreparedRegion.of("square", SQUARE);
+
+        assertTrue(square.contains(0.5, 0.5));
+        assertFalse(square.contains(1.5, 0.5));
+        assertFalse(square.contains(-0.5, 0.5));
+        assertFalse(square.contains(0.5, 2));
+    }
+
+    @Test
+    public void testContains_BorderCountsAsInside() {
+        PreparedRegion square = PreparedRegion.of("square", SQUARE);
+
+        assertTrue(square.contains(0, 0.5));
+        assertTrue(square.contains(1, 0.5));
+        assertTrue(square.contains(0.5, 0));
+        assertTrue(square.contains(0.5, 1));
+        assertTrue(square.contains(0, 0));
+        assertTrue(square.contains(1, 1));
+    }
+
+    @Test
+    public void testContains_ConcavePolygon() {
+        PreparedRegion u = PreparedRegion.of("u", U_SHAPE);
+
+        assertTrue(u.contains(0.5, 2));
+        assertTrue(u.contains(2.5, 2));
+        assertFalse(u.contains(1.5, 2));
+        assertTrue(u.contains(1.5, 0.5));
+        assertTrue(u.contains(1.5, 1));
+        assertTrue(u.contains(2, 3));
+        assertEquals(8, u.vertexCount());
+    }
+
+    @Test
+    public void testIntersectsSegment_ClipsCornerWithBothEndsOutside() {
+        PreparedRegion square = PreparedRegion.of("square", SQUARE);
+
+        assertFalse(square.contains(-0.1, 0.8));
+        assertFalse(square.contains(0.3, 1.2));
+        assertTrue(square.intersectsSegment(-0.1, 0.8, 0.3, 1.2));
+        assertTrue(square.intersectsSegment(-0.5, 0.5, 1.5, 0.5));
+    }
+
+    @Test
+    public void testIntersectsSegment_TouchingAndMissing() {
+        PreparedRegion square = PreparedRegion.of("square", SQUARE);
+        PreparedRegion u = PreparedRegion.of("u", U_SHAPE);
+
+        assertTrue(square.intersectsSegment(-1, 2, 1, 0));
+        assertTrue(square.intersectsSegment(-1, 1, 2, 1));
+        assertTrue(square.intersectsSegment(0.5, 0.5, 0.6, 0.6));
+        assertFalse(square.intersectsSegment(-1, 0.5, -0.1, 0.5));
+        assertFalse(square.intersectsSegment(-0.5, 1, 1, 2.5));
+        // through the gap of the U without touching it
+        assertFalse(u.intersectsSegment(1.5, 1.5, 1.5, 4));
+        assertTrue(u.intersectsSegment(1.5, 2, 2.5, 2));
+    }
+
+    @Test
+    public void testOf_ClosingVertexIsOptional() {
+        PreparedRegion open = PreparedRegion.of("open", SQUARE);
+        PreparedRegion closed = PreparedRegion.of(new NamedRegion("closed", new LngLat[]{
+                new LngLat(0, 1), new LngLat(0, 0), new LngLat(1, 0), new LngLat(1, 1), new LngLat(0, 1)
+        }));
+
+        assertEquals(4, open.vertexCount());
+        assertEquals(4, closed.vertexCount());
+        for (double x = -0.25; x <= 1.25; x += 0.125) {
+            for (double y = -0.25; y <= 1.25; y += 0.125) {
+                assertEquals(open.contains(x, y), closed.contains(x, y), "at " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    public void testOf_RejectsDegenerateRegions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PreparedRegion.of("line", List.of(new LngLat(0, 0), new LngLat(1, 1), new LngLat(0, 0))));
+    }
+}
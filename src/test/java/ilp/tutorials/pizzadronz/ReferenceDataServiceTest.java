@@ -0,0 +1,176 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import ilp.tutorials.pizzadronz.services.ReferenceDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.*;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReferenceDataServiceTest {
+
+    private static final NamedRegion CENTRAL_AREA = new NamedRegion(SystemConstants.CENTRAL_REGION_NAME, new LngLat[]{
+            new LngLat(-3.192473, 55.946233),
+            new LngLat(-3.192473, 55.942617),
+            new LngLat(-3.184319, 55.942617),
+            new LngLat(-3.184319, 55.946233)
+    });
+
+    private ReferenceDataSource source;
+    private MutableClock clock;
+    private ReferenceDataService service;
+
+    @BeforeEach
+    public void setUp() {
+        source = mock(ReferenceDataSource.class);
+        when(source.fetchRestaurants()).thenReturn(new Restaurant[0]);
+        when(source.fetchNoFlyZones()).thenReturn(new NamedRegion[0]);
+        when(source.fetchCentralArea()).thenReturn(CENTRAL_AREA);
+
+        clock = new MutableClock(Instant.parse("2024-01-28T12:00:00Z"));
+        service = new ReferenceDataService(source, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    public void testSnapshot_LoadsOnceThenServesFromMemory() {
+        ReferenceData first = service.snapshot();
+        ReferenceData second = service.snapshot();
+        ReferenceData third = service.snapshot();
+
+        assertSame(first, second);
+        assertSame(first, third);
+        verify(source, times(1)).fetchRestaurants();
+        verify(source, times(1)).fetchNoFlyZones();
+        verify(source, times(1)).fetchCentralArea();
+
+        ReferenceDataService.Stats stats = service.stats();
+        assertEquals(1, stats.misses());
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.refreshes());
+    }
+
+    @Test
+    public void testSnapshot_StaleDataIsServedWhileRefreshing() {
+        ReferenceData first = service.snapshot();
+        clock.advance(Duration.ofMinutes(6));
+
+        ReferenceData stale = service.snapshot();
+        assertSame(first, stale);
+
+        verify(source, timeout(2000).times(2)).fetchCentralArea();
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            while (service.snapshot() == first) {
+                Thread.onSpinWait();
+            }
+        });
+        assertEquals(2, service.stats().refreshes());
+    }
+
+    @Test
+    public void testSnapshot_RefreshesOnTheGivenThreads() {
+        AtomicBoolean refreshedOnVirtualThread = new AtomicBoolean();
+        when(source.fetchCentralArea()).thenAnswer(invocation -> {
+            refreshedOnVirtualThread.set(Thread.currentThread().isVirtual());
+            return CENTRAL_AREA;
+        });
+        ReferenceDataService virtual = new ReferenceDataService(source, Duration.ofMinutes(5), clock, Thread.ofVirtual().factory());
+
+        ReferenceData first = virtual.snapshot();
+        assertFalse(refreshedOnVirtualThread.get());
+
+        clock.advance(Duration.ofMinutes(6));
+        virtual.snapshot();
+        verify(source, timeout(2000).times(2)).fetchCentralArea();
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            while (virtual.snapshot() == first) {
+                Thread.onSpinWait();
+            }
+        });
+        assertTrue(refreshedOnVirtualThread.get());
+        virtual.stop();
+    }
+
+    @Test
+    public void testRefresh_FailureKeepsPreviousSnapshot() {
+        ReferenceData first = service.snapshot();
+        when(source.fetchNoFlyZones()).thenThrow(new IllegalArgumentException("Failed to fetch data from REST service: /noFlyZones"));
+        clock.advance(Duration.ofMinutes(6));
+
+        assertSame(first, service.snapshot());
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            while (service.stats().refreshFailures() == 0) {
+                Thread.onSpinWait();
+            }
+        });
+        assertSame(first, service.snapshot());
+    }
+
+    @Test
+    public void testSnapshot_ColdLoadFailurePropagates() {
+        when(source.fetchRestaurants()).thenThrow(new IllegalArgumentException("Failed to fetch restaurant data"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.snapshot());
+        assertEquals("Failed to fetch restaurant data", ex.getMessage());
+        assertEquals(-1, service.stats().ageMillis());
+    }
+
+    @Test
+    public void testRefresh_FailingListenerDoesNotStopTheOthers() {
+        AtomicInteger notified = new AtomicInteger();
+        service.addRefreshListener(data -> {
+            throw new IllegalStateException("listener failed");
+        });
+        service.addRefreshListener(data -> notified.incrementAndGet());
+
+        ReferenceData data = service.refresh();
+
+        assertSame(data, service.snapshot());
+        assertEquals(1, notified.get());
+        assertEquals(1, service.stats().refreshes());
+        assertEquals(0, service.stats().refreshFailures());
+    }
+
+    @Test
+    public void testSnapshot_ColdLoadWaitsForStartupRefresh() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(source.fetchRestaurants()).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await();
+            return new Restaurant[0];
+        });
+        AtomicInteger notified = new AtomicInteger();
+        service.addRefreshListener(data -> notified.incrementAndGet());
+
+        service.start();
+        assertTrue(fetching.await(2, TimeUnit.SECONDS));
+        CompletableFuture<ReferenceData> coldLoad = CompletableFuture.supplyAsync(service::snapshot);
+        release.countDown();
+
+        assertSame(coldLoad.get(2, TimeUnit.SECONDS), service.snapshot());
+        verify(source, times(1)).fetchRestaurants();
+        assertEquals(1, notified.get());
+        assertEquals(1, service.stats().refreshes());
+        service.stop();
+    }
+
+    @Test
+    public void testStats_ReportsSnapshotAge() {
+        service.snapshot();
+        clock.advance(Duration.of(90, ChronoUnit.SECONDS));
+
+        assertEquals(90_000, service.stats().ageMillis());
+    }
+}
@@ -0,0 +1,55 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.geometry.PackedPath;
+import ilp.tutorials.pizzadronz.planning.RoundTrip;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoundTripTest {
+
+    private static final LngLat RESTAURANT = new LngLat(-3.1912, 55.9455);
+    private static final LngLat MIDWAY = new LngLat(-3.1910, 55.9454);
+    private static final LngLat ARRIVED = new LngLat(-3.1908, 55.9453);
+
+    @Test
+    public void testOf_ReversedOutboundLegAndHovers() {
+        RoundTrip trip = RoundTrip.of(PackedPath.copyOf(List.of(RESTAURANT, MIDWAY, ARRIVED)));
+
+        assertEquals(List.of(ARRIVED, MIDWAY, RESTAURANT, RESTAURANT, MIDWAY, ARRIVED, ARRIVED), trip.path());
+        assertEquals(3, trip.pickup());
+        assertEquals(6, trip.dropOff());
+        assertEquals(6, trip.moves());
+    }
+
+    @Test
+    public void testOf_StartCloseToDestinationOnlyHovers() {
+        RoundTrip trip = RoundTrip.of(PackedPath.copyOf(List.of(RESTAURANT)));
+
+        assertEquals(List.of(RESTAURANT, RESTAURANT, RESTAURANT), trip.path());
+        assertEquals(2, trip.moves());
+    }
+
+    @Test
+    public void testOf_EnforcesMoveLimit() {
+        // two legs of 999 moves plus two hovers just fit, one more move per leg does not
+        assertEquals(SystemConstants.DRONE_MAX_MOVES, RoundTrip.of(straightPath(999)).moves());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> RoundTrip.of(straightPath(1000)));
+        assertTrue(ex.getMessage().startsWith("Round trip needs 2002 moves"));
+    }
+
+    private static PackedPath straightPath(int moves) {
+        double[] lng = new double[moves + 1];
+        double[] lat = new double[moves + 1];
+        for (int i = 0; i <= moves; i++) {
+            lng[i] = RESTAURANT.lng() + i * SystemConstants.DRONE_MOVE_DISTANCE;
+            lat[i] = RESTAURANT.lat();
+        }
+        return PackedPath.wrap(lng, lat);
+    }
+}
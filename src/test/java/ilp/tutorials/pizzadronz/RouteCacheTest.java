@@ -0,0 +1,127 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.planning.RouteCache;
+import ilp.tutorials.pizzadronz.services.ReferenceData;
+import ilp.tutorials.pizzadronz.services.ReferenceDataService;
+import ilp.tutorials.pizzadronz.services.ReferenceDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RouteCacheTest {
+
+    private static final NamedRegion CENTRAL_AREA = new NamedRegion(SystemConstants.CENTRAL_REGION_NAME, new LngLat[]{
+            new LngLat(-3.192473, 55.946233),
+            new LngLat(-3.192473, 55.942617),
+            new LngLat(-3.184319, 55.942617),
+            new LngLat(-3.184319, 55.946233)
+    });
+
+    private static final NamedRegion ZONE = new NamedRegion("zone", new LngLat[]{
+            new LngLat(-3.1905, 55.9440),
+            new LngLat(-3.1900, 55.9428),
+            new LngLat(-3.1871, 55.9433),
+            new LngLat(-3.1877, 55.9445)
+    });
+
+    private static final LngLat APPLETON = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+
+    private ReferenceDataSource source;
+    private ReferenceDataService referenceDataService;
+    private RouteCache cache;
+    private final AtomicInteger plans = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        source = mock(ReferenceDataSource.class);
+        when(source.fetchRestaurants()).thenReturn(new Restaurant[0]);
+        when(source.fetchNoFlyZones()).thenReturn(new NamedRegion[]{ ZONE });
+        when(source.fetchCentralArea()).thenReturn(CENTRAL_AREA);
+
+        referenceDataService = new ReferenceDataService(source, Duration.ofMinutes(5), Clock.systemUTC());
+        cache = new RouteCache(referenceDataService, 2);
+    }
+
+    private List<LngLat> cachedPath(LngLat start) {
+        ReferenceData data = referenceDataService.snapshot();
+        return cache.get(new RouteCache.RouteKey(start, APPLETON, data.geometryVersion()), () -> {
+            plans.incrementAndGet();
+            return List.of(start, APPLETON);
+        });
+    }
+
+    @Test
+    public void testGet_SecondLookupIsServedFromCache() {
+        LngLat start = new LngLat(-3.1912, 55.9455);
+
+        List<LngLat> first = cachedPath(start);
+        List<LngLat> second = cachedPath(start);
+
+        assertSame(first, second);
+        assertEquals(1, plans.get());
+
+        RouteCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+        assertEquals(2, stats.cachedPositions());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    @Test
+    public void testGet_EvictsLeastRecentlyUsed() {
+        LngLat a = new LngLat(-3.1912, 55.9455);
+        LngLat b = new LngLat(-3.2025, 55.9432);
+        LngLat c = new LngLat(-3.1838, 55.9444);
+
+        cachedPath(a);
+        cachedPath(b);
+        cachedPath(a);
+        cachedPath(c);
+
+        assertEquals(3, plans.get());
+        cachedPath(a);
+        assertEquals(3, plans.get());
+        cachedPath(b);
+        assertEquals(4, plans.get());
+        assertEquals(2, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    public void testRefresh_SameGeometryKeepsPaths() {
+        LngLat start = new LngLat(-3.1912, 55.9455);
+        cachedPath(start);
+
+        referenceDataService.refresh();
+        cachedPath(start);
+
+        assertEquals(1, plans.get());
+    }
+
+    @Test
+    public void testRefresh_ChangedGeometryInvalidatesPaths() {
+        LngLat start = new LngLat(-3.1912, 55.9455);
+        long oldVersion = referenceDataService.snapshot().geometryVersion();
+        cachedPath(start);
+
+        when(source.fetchNoFlyZones()).thenReturn(new NamedRegion[0]);
+        ReferenceData refreshed = referenceDataService.refresh();
+        assertNotEquals(oldVersion, refreshed.geometryVersion());
+        assertEquals(0, cache.stats().size());
+
+        cachedPath(start);
+        assertEquals(2, plans.get());
+    }
+}
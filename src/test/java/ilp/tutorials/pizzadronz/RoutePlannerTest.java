@@ -0,0 +1,140 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.geometry.Airspace;
+import ilp.tutorials.pizzadronz.geometry.LngLatHandler;
+import ilp.tutorials.pizzadronz.planning.RoutePlanner;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.ac.ed.inf.ilp.constant.SystemConstants;
+import uk.ac.ed.inf.ilp.data.LngLat;
+import uk.ac.ed.inf.ilp.data.NamedRegion;
+import uk.ac.ed.inf.ilp.data.Restaurant;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutePlannerTest {
+
+    private static final LngLat APPLETON = new LngLat(SystemConstants.APPLETON_LNG, SystemConstants.APPLETON_LAT);
+
+    private static Restaurant[] restaurants;
+    private static NamedRegion centralArea;
+    private static Airspace airspace;
+
+    private final RoutePlanner planner = new RoutePlanner(250_000);
+
+    // recorded responses of the ILP REST service
+    @BeforeAll
+    public static void loadFixtures() throws Exception {
+        restaurants = readJson("/json/Restaurants.json", Restaurant[].class);
+        centralArea = readJson("/json/NamedRegion.json", NamedRegion.class);
+        airspace = Airspace.of(Arrays.asList(readJson("/json/NoFlyZones.json", NamedRegion[].class)), centralArea);
+    }
+
+    static <T> T readJson(String resource, Class<T> type) throws Exception {
+        try (InputStream in = RoutePlannerTest.class.getResourceAsStream(resource)) {
+            return Jackson2ObjectMapperBuilder.json().build().readValue(in, type);
+        }
+    }
+
+    @Test
+    public void testStateKey_SurvivesFloatingPointDrift() {
+        double lng = -3.1912869215011597;
+        double lat = 55.945535152517735;
+
+        // 16 moves around the compass end up where they started, up to rounding errors
+        double driftedLng = lng;
+        double driftedLat = lat;
+        for (int direction = 0; direction < RoutePlanner.DIRECTIONS; direction++) {
+            driftedLng += LngLatHandler.moveLng(direction);
+            driftedLat += LngLatHandler.moveLat(direction);
+        }
+
+        assertEquals(RoutePlanner.stateKey(lng, lat), RoutePlanner.stateKey(driftedLng, driftedLat));
+        assertNotEquals(RoutePlanner.stateKey(lng, lat), RoutePlanner.stateKey(lng + LngLatHandler.moveLng(0), lat));
+        assertNotEquals(RoutePlanner.stateKey(lng, lat), RoutePlanner.stateKey(lng, lat + LngLatHandler.moveLat(4)));
+        assertNotEquals(RoutePlanner.stateKey(lng, lat), RoutePlanner.stateKey(lng, -lat));
+        assertNotEquals(RoutePlanner.stateKey(lng, lat), RoutePlanner.stateKey(-lng, lat));
+    }
+
+    @Test
+    public void testPlan_AllRestaurantsProduceLegalPaths() {
+        for (Restaurant restaurant : restaurants) {
+            List<LngLat> path = planner.plan(restaurant.location(), APPLETON, airspace);
+            assertLegalPath(restaurant.location(), path);
+        }
+    }
+
+    @Test
+    public void testPlan_PathIsNoLongerThanNeeded() {
+        // Civerinos Slice has a clear line of sight to Appleton Tower apart from the George Square zone
+        Restaurant civerinos = restaurants[0];
+        List<LngLat> path = planner.plan(civerinos.location(), APPLETON, airspace);
+
+        double straightLine = distance(civerinos.location(), APPLETON) - SystemConstants.DRONE_IS_CLOSE_DISTANCE;
+        int lowerBound = (int) Math.ceil(straightLine / SystemConstants.DRONE_MOVE_DISTANCE);
+        assertTrue(path.size() - 1 >= lowerBound);
+        assertTrue(path.size() - 1 <= lowerBound * 1.25, "path uses " + (path.size() - 1) + " moves, lower bound " + lowerBound);
+    }
+
+    @Test
+    public void testPlan_StartCloseToDestinationIsSinglePosition() {
+        LngLat start = new LngLat(APPLETON.lng() + 0.0001, APPLETON.lat());
+        List<LngLat> path = planner.plan(start, APPLETON, airspace);
+
+        assertEquals(List.of(start), path);
+    }
+
+    @Test
+    public void testPlan_UnreachableDestinationFailsWithinBudget() {
+        LngLat destination = new LngLat(-3.1889, 55.9438);
+        NamedRegion cage = new NamedRegion("cage", new LngLat[]{
+                new LngLat(-3.1895, 55.9443),
+                new LngLat(-3.1895, 55.9433),
+                new LngLat(-3.1883, 55.9433),
+                new LngLat(-3.1883, 55.9443)
+        });
+        RoutePlanner smallBudget = new RoutePlanner(5_000);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> smallBudget.plan(restaurants[0].location(), destination, Airspace.of(List.of(cage), centralArea)));
+        assertTrue(ex.getMessage().startsWith("No valid path found"));
+    }
+
+    static void assertLegalPath(LngLat start, List<LngLat> path) {
+        assertEquals(start, path.get(0));
+        assertTrue(distance(path.get(path.size() - 1), APPLETON) < SystemConstants.DRONE_IS_CLOSE_DISTANCE);
+        assertTrue(path.size() - 1 <= SystemConstants.DRONE_MAX_MOVES);
+
+        boolean enteredCentral = false;
+        for (int i = 0; i < path.size(); i++) {
+            LngLat position = path.get(i);
+            assertFalse(airspace.isInNoFlyZone(position.lng(), position.lat()), "position " + i + " is in a no-fly zone");
+
+            boolean inCentral = airspace.isInCentralArea(position.lng(), position.lat());
+            assertFalse(enteredCentral && !inCentral, "position " + i + " left the central area");
+            enteredCentral |= inCentral;
+
+            if (i > 0) {
+                LngLat previous = path.get(i - 1);
+                assertEquals(SystemConstants.DRONE_MOVE_DISTANCE, distance(previous, position), 1e-12);
+                double angle = Math.toDegrees(Math.atan2(position.lat() - previous.lat(), position.lng() - previous.lng()));
+                double sector = angle / 22.5;
+                assertEquals(Math.round(sector), sector, 1e-6, "move " + i + " is not a compass direction");
+                for (int step = 1; step < 20; step++) {
+                    double t = step / 20.0;
+                    assertFalse(airspace.isInNoFlyZone(previous.lng() + t * (position.lng() - previous.lng()),
+                            previous.lat() + t * (position.lat() - previous.lat())), "move " + i + " cuts a no-fly zone");
+                }
+            }
+        }
+    }
+
+    private static double distance(LngLat a, LngLat b) {
+        return Math.hypot(a.lng() - b.lng(), a.lat() - b.lat());
+    }
+}
@@ -0,0 +1,111 @@
+package ilp.tutorials.pizzadronz;
+
+import ilp.tutorials.pizzadronz.geometry.PreparedRegion;
+import ilp.tutorials.pizzadronz.geometry.ZoneIndex;
+import org.junit.jupiter.api.Test;
+import uk.ac.ed.inf.ilp.data.LngLat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZoneIndexTest {
+
+    // a dense field of small triangles around George Square
+    private static List<PreparedRegion> denseZones(int count, long seed) {
+        Random random = new Random(seed);
+        List<PreparedRegion> zones = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double lng = -3.20 + random.nextDouble() * 0.03;
+            double lat = 55.94 + random.nextDouble() * 0.01;
+            double size = 0.0002 + random.nextDouble() * 0.001;
+            zones.add(PreparedRegion.of("zone" + i, List.of(
+                    new LngLat(lng, lat),
+                    new LngLat(lng + size, lat),
+                    new LngLat(lng + size / 2, lat + size))));
+        }
+        return zones;
+    }
+
+    @Test
+    public void testContains_MatchesLinearScan() {
+        List<PreparedRegion> zones = denseZones(500, 42);
+        ZoneIndex index = ZoneIndex.of(zones);
+
+        Random random = new Random(7);
+        int hits = 0;
+        for (int i = 0; i < 20_000; i++) {
+            double lng = -3.201 + random.nextDouble() * 0.032;
+            double lat = 55.939 + random.nextDouble() * 0.012;
+            boolean expected = zones.stream().anyMatch(zone -> zone.contains(lng, lat));
+            assertEquals(expected, index.contains(lng, lat), "at " + lng + ", " + lat);
+            hits += expected ? 1 : 0;
+        }
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    public void testContains_NoZones() {
+        ZoneIndex index = ZoneIndex.of(List.of());
+
+        assertFalse(index.contains(0, 0));
+        assertFalse(index.intersectsSegment(0, 0, 1, 1));
+    }
+
+    @Test
+    public void testIntersectsSegment_MatchesLinearScan() {
+        List<PreparedRegion> zones = denseZones(500, 3);
+        ZoneIndex index = ZoneIndex.of(zones);
+
+        Random random = new Random(11);
+        int hits = 0;
+        for (int i = 0; i < 20_000; i++) {
+            double lng1 = -3.201 + random.nextDouble() * 0.032;
+            double lat1 = 55.939 + random.nextDouble() * 0.012;
+            double angle = random.nextInt(16) * Math.PI / 8;
+            double lng2 = lng1 + 0.00015 * Math.cos(angle);
+            double lat2 = lat1 + 0.00015 * Math.sin(angle);
+
+            boolean expected = zones.stream().anyMatch(zone -> zone.intersectsSegment(lng1, lat1, lng2, lat2));
+            assertEquals(expected, index.intersectsSegment(lng1, lat1, lng2, lat2),
+                    "from " + lng1 + ", " + lat1 + " to " + lng2 + ", " + lat2);
+            hits += expected ? 1 : 0;
+        }
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    public void testIntersectsSegment_FewZonesAcrossManyCells() {
+        // up to 64 zones are deduplicated in a bit mask rather than a bitset
+        List<PreparedRegion> zones = denseZones(40, 9);
+        ZoneIndex index = ZoneIndex.of(zones);
+
+        Random random = new Random(13);
+        for (int i = 0; i < 5_000; i++) {
+            double lng1 = -3.201 + random.nextDouble() * 0.032;
+            double lat1 = 55.939 + random.nextDouble() * 0.012;
+            double lng2 = -3.201 + random.nextDouble() * 0.032;
+            double lat2 = 55.939 + random.nextDouble() * 0.012;
+
+            boolean expected = zones.stream().anyMatch(zone -> zone.intersectsSegment(lng1, lat1, lng2, lat2));
+            assertEquals(expected, index.intersectsSegment(lng1, lat1, lng2, lat2),
+                    "from " + lng1 + ", " + lat1 + " to " + lng2 + ", " + lat2);
+        }
+    }
+
+    @Test
+    public void testIntersectsSegment_LongSegmentAcrossManyCells() {
+        List<PreparedRegion> zones = denseZones(500, 5);
+        ZoneIndex index = ZoneIndex.of(zones);
+
+        // segments spanning the whole indexed area, and one passing outside of it
+        for (double lat = 55.9395; lat < 55.951; lat += 0.0005) {
+            double y = lat;
+            boolean expected = zones.stream().anyMatch(zone -> zone.intersectsSegment(-3.201, y, -3.169, y + 0.001));
+            assertEquals(expected, index.intersectsSegment(-3.201, y, -3.169, y + 0.001), "at " + lat);
+        }
+        assertFalse(index.intersectsSegment(-3.25, 55.93, -3.15, 55.93));
+    }
+}